@@ -0,0 +1,102 @@
+package dev.huggo.vntl_backend.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que conta, para a requisição atual ({@link StatementStats}), cada comando JDBC executado,
+ * o tempo gasto no banco e as linhas lidas.
+ *
+ * Só conexões obtidas durante uma requisição são embrulhadas; o resto (Flyway, threads de fundo)
+ * recebe a conexão do pool sem custo extra. Um {@code executeBatch} conta como um comando: o que
+ * importa aqui são as idas ao banco.
+ */
+final class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    InstrumentedDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(super.getConnection(username, password));
+    }
+
+    /**
+     * Fecha o pool ao desligar: este objeto substitui o bean original, e com ele o destroy inferido.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Connection instrument(Connection connection) {
+        StatementStats stats = StatementStats.current();
+        if (stats == null) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            // createStatement, prepareStatement, prepareCall
+            if (result instanceof Statement statement) {
+                return instrument(method.getReturnType(), statement, stats);
+            }
+            return result;
+        });
+    }
+
+    private static Object instrument(Class<?> type, Statement statement, StatementStats stats) {
+        return proxy(type, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                Object result = invoke(statement, method, args);
+                return result instanceof ResultSet resultSet && method.getName().equals("getResultSet")
+                        ? instrument(resultSet, stats)
+                        : result;
+            }
+            long start = System.nanoTime();
+            try {
+                Object result = invoke(statement, method, args);
+                return result instanceof ResultSet resultSet ? instrument(resultSet, stats) : result;
+            } finally {
+                stats.executed(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static ResultSet instrument(ResultSet resultSet, StatementStats stats) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                stats.fetched();
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -6,14 +6,19 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 
 @Component
@@ -22,6 +27,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+
+    /**
+     * {@code cache}: carrega o {@code User} (via cache de principais) a cada requisição.
+     * {@code claims}: confia no claim {@code role} assinado e não consulta o usuário.
+     *
+     * No modo {@code claims} a desativação ou troca de role só vale quando o access token
+     * expira ({@code security.jwt.expiration}): o refresh recusa usuários desativados, e o
+     * logout continua valendo de imediato pelo {@link RevokedTokenRegistry}.
+     */
+    @Value("${security.jwt.principal-mode:cache}")
+    private String principalMode;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -35,14 +52,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
+        TokenClaims claims;
+        try {
+            claims = jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (revokedTokenRegistry.isRevoked(claims.tokenId())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if (username != null &&
+        // Assinado mas sem role: não foi emitido por generateToken
+        if (!StringUtils.hasText(claims.role())) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        if (claims.username() != null &&
             SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails user = userDetailsService.loadUserByUsername(username);
+            UserDetails user;
+            try {
+                user = "claims".equals(principalMode)
+                    ? principalFromClaims(claims)
+                    : userDetailsService.loadUserByUsername(claims.username());
+            } catch (UsernameNotFoundException e) {
+                filterChain.doFilter(request, response);
+                return;
+            }
 
-            if (jwtService.isTokenValid(token, user)) {
+            if (user.isEnabled() && jwtService.isTokenValid(claims, user)) {
                 UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(
                         user, null, user.getAuthorities());
@@ -67,4 +109,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails principalFromClaims(TokenClaims claims) {
+        return User.withUsername(claims.username())
+            .password("")
+            .authorities(claims.role())
+            .build();
+    }
 }
@@ -1,54 +1,122 @@
 package dev.huggo.vntl_backend.config;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${security.jwt.secret}")
     private String secret;
 
     @Value("${security.jwt.expiration}")
     private long expiration;
 
+    @Value("${security.jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, TokenClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+
+        // Cada entrada expira junto com o token que representa
+        verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfter(new Expiry<String, TokenClaims>() {
+                @Override
+                public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+                    return remainingNanos(claims);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                    return remainingNanos(claims);
+                }
+
+                @Override
+                public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+    }
+
     /* =========================
        Token generation
        ========================= */
 
     public String generateToken(UserDetails userDetails) {
         return Jwts.builder()
+            .id(UUID.randomUUID().toString())
             .subject(userDetails.getUsername())
-            // .setSubject(userDetails.getUsername())
             .claim(
                 "role",
                 userDetails.getAuthorities().iterator().next().getAuthority()
             )
             .issuedAt(new Date())
-            // .setIssuedAt(new Date())
             .expiration(new Date(System.currentTimeMillis() + expiration))
-            // .setExpiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(getSigningKey())
-            // .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(signingKey)
             .compact();
     }
 
     /* =========================
-       Token validation
+       Token verification
        ========================= */
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    /**
+     * Verifica assinatura e expiração do token uma única vez e devolve os claims.
+     * Tokens já verificados são servidos do cache (chave = SHA-256 do token).
+     *
+     * @throws JwtException se o token for inválido, estiver expirado ou não tiver expiração
+     */
+    public TokenClaims verify(String token) {
+        TokenClaims claims = verifiedTokens.get(digest(token), key -> parse(token));
+        if (claims.isExpired()) {
+            // O cache pode reter a entrada até a próxima manutenção do Caffeine
+            throw new JwtException("Token expired");
+        }
+        return claims;
+    }
+
+    public boolean isTokenValid(TokenClaims claims, UserDetails userDetails) {
+        return claims.username().equals(userDetails.getUsername()) && !claims.isExpired();
     }
 
     /* =========================
@@ -56,40 +124,45 @@ public class JwtService {
        ========================= */
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return verify(token).role();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(verify(token).expiresAt());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private TokenClaims parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() == null) {
+            // Assinado por nós, mas sem exp ficaria válido para sempre (e no cache sem prazo)
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        return new TokenClaims(
+            claims.getId(),
+            claims.getSubject(),
+            claims.get("role", String.class),
+            claims.getExpiration().toInstant()
+        );
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        final Claims claims = extractAllClaims(token);
-        return resolver.apply(claims);
+    private static long remainingNanos(TokenClaims claims) {
+        return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
-    }
-
-    /* =========================
-       Signing key
-       ========================= */
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    /**
+     * SHA-256 em hexadecimal; usado como chave do cache e para armazenar refresh tokens.
+     */
+    public static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
 }
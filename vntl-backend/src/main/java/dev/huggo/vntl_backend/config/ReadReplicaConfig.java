@@ -0,0 +1,87 @@
+package dev.huggo.vntl_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Roteamento de leitura para réplicas, ativo só quando {@code datasource.replicas.urls} está definido;
+ * sem ele, o DataSource padrão do Spring Boot segue como está.
+ *
+ * O DataSource principal é um {@link LazyConnectionDataSourceProxy}: a conexão só é obtida no primeiro
+ * comando, quando já se sabe se a transação é somente leitura. As {@code @Transactional(readOnly = true)}
+ * vão ao {@link ReplicaRoutingDataSource}; o resto (escritas, Flyway, código sem transação) ao primário.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replicas.urls")
+public class ReadReplicaConfig {
+
+    @Value("${datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replicas.max-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${datasource.replicas.connection-timeout:PT2S}")
+    private Duration replicaConnectionTimeout;
+
+    @Value("${datasource.replicas.health-check-interval:PT5S}")
+    private Duration healthCheckInterval;
+
+    @Value("${datasource.replicas.max-lag:PT5S}")
+    private Duration maxLag;
+
+    @Value("${datasource.read-your-writes-window:PT10S}")
+    private Duration readYourWritesWindow;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (pools.size() + 1));
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(replicaUsername);
+            pool.setPassword(replicaPassword);
+            pool.setMaximumPoolSize(replicaPoolSize);
+            // Curto: uma réplica fora do ar deve cair no primário, não segurar a requisição
+            pool.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+            pool.setReadOnly(true);
+            pool.setMetricRegistry(meterRegistry);
+            pools.add(pool);
+        }
+        return new ReplicaRoutingDataSource(new WriteTrackingDataSource(primaryDataSource, readYourWritesWindow),
+                pools, maxLag, healthCheckInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaDataSource.primary());
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,34 @@
+package dev.huggo.vntl_backend.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Força as leituras de um trecho a irem ao primário, mesmo em transações somente leitura.
+ *
+ * Usado por quem guarda o resultado em cache: logo após uma invalidação, uma réplica
+ * atrasada devolveria o valor antigo, que ficaria no cache até o TTL. Só vale para
+ * transações abertas dentro do trecho. Sem réplicas configuradas não tem efeito.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> reader) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return reader.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    static boolean primaryRequired() {
+        return PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,179 @@
+package dev.huggo.vntl_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Destino das transações somente leitura: escolhe uma réplica saudável em rodízio ou cai no primário.
+ *
+ * Uma thread consulta cada réplica a cada {@code datasource.replicas.health-check-interval}; a réplica
+ * sai do rodízio se não responder ou se o atraso de replicação passar de {@code datasource.replicas.max-lag},
+ * e volta na primeira verificação boa. Falha ao obter conexão também a tira de imediato.
+ *
+ * Vão ao primário: leituras dentro de {@link ReadRouting#onPrimary}, leituras de quem escreveu há pouco
+ * ({@link WriteTrackingDataSource}) e tudo quando nenhuma réplica está saudável.
+ *
+ * Métricas: {@code datasource.reads} por rota, {@code datasource.replica.healthy} e
+ * {@code datasource.replica.lag} por réplica; os pools aparecem em {@code hikaricp.*} com {@code pool=<réplica>}.
+ */
+@Slf4j
+final class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // Standby parado (sem WAL pendente) não tem atraso, por mais antigo que seja o último replay
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END""";
+
+    private final WriteTrackingDataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthCheck;
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter recentWriterReads;
+    private final Counter fallbackReads;
+
+    ReplicaRoutingDataSource(WriteTrackingDataSource primary, List<HikariDataSource> pools, Duration maxLag,
+                             Duration healthCheckInterval, MeterRegistry meterRegistry) {
+        if (pools.isEmpty()) {
+            throw new IllegalArgumentException("datasource.replicas.urls has no replica URL");
+        }
+        this.primary = primary;
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+
+        replicaReads = reads(meterRegistry, "replica");
+        pinnedReads = reads(meterRegistry, "primary-pinned");
+        recentWriterReads = reads(meterRegistry, "primary-recent-write");
+        fallbackReads = reads(meterRegistry, "primary-fallback");
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("replica", replica.name())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+
+        healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.reads").tag("route", route).register(meterRegistry);
+    }
+
+    /**
+     * Primário com anotação de escritas; destino das transações de escrita.
+     */
+    WriteTrackingDataSource primary() {
+        return primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadRouting.primaryRequired()) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+        if (primary.recentWriter()) {
+            recentWriterReads.increment();
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool().getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses the configured credentials");
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        replicas.forEach(replica -> replica.pool().close());
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                replica.lagSeconds = rs.getDouble(1);
+                if (replica.lagSeconds * 1000 > maxLag.toMillis()) {
+                    markDown(replica, "replication lag " + replica.lagSeconds + "s");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Read replica {} in rotation (lag {}s)", replica.name(), replica.lagSeconds);
+                }
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    private static void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            log.warn("Read replica {} taken out of rotation: {}", replica.name(), reason);
+        }
+        replica.healthy = false;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+
+        // Fora do rodízio até a primeira verificação
+        private volatile boolean healthy;
+        private volatile double lagSeconds;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        HikariDataSource pool() {
+            return pool;
+        }
+
+        String name() {
+            return pool.getPoolName();
+        }
+    }
+}
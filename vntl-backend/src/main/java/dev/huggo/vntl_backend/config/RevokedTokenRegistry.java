@@ -0,0 +1,83 @@
+package dev.huggo.vntl_backend.config;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.huggo.vntl_backend.domain.RevokedToken;
+import dev.huggo.vntl_backend.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Conjunto em memória dos access tokens revogados (por {@code jti}).
+ *
+ * O filtro consulta apenas o mapa, sem acessar o banco. Como cada entrada só vive
+ * até o token expirar, o conjunto fica pequeno e um hash set exato basta
+ * (sem os falsos positivos de um Bloom filter). A tabela {@code revoked_tokens}
+ * é a fonte de verdade: é carregada na inicialização e relida periodicamente
+ * para refletir revogações feitas por outras instâncias.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevokedTokenRegistry {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        reload();
+        Gauge.builder("jwt.revoked-tokens", revoked, Map::size).register(meterRegistry);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneOffset.UTC))
+                .build());
+        revoked.put(tokenId, expiresAt);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.refresh-interval:PT30S}")
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        revokedTokenRepository.findByExpiresAtAfter(now)
+                .forEach(t -> revoked.put(t.getTokenId(), t.getExpiresAt().toInstant(ZoneOffset.UTC)));
+        purgeExpired();
+    }
+
+    @Scheduled(cron = "${security.jwt.revocation.cleanup-cron:0 0 * * * *}")
+    @Transactional
+    public void cleanup() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now(ZoneOffset.UTC));
+        if (deleted > 0) {
+            log.info("Removed {} expired revoked tokens", deleted);
+        }
+    }
+
+    private void purgeExpired() {
+        Instant now = Instant.now();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+}
@@ -1,7 +1,10 @@
 package dev.huggo.vntl_backend.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import java.time.Duration;
 import java.util.List;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,7 +13,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,6 +20,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -34,9 +37,13 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> {})
             .authorizeHttpRequests(auth -> auth
+                // Despacho assíncrono (SSE, downloads em stream) de uma requisição já autorizada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Endpoints públicos
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 
                 // Endpoints protegidos
@@ -56,6 +63,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.DELETE, "/api/professionals/**").hasRole("ADMIN")
                 
                 .requestMatchers("/api/visits/**").hasAnyRole("ADMIN", "MANAGER", "TECHNICIAN")
+                .requestMatchers("/api/sync/**").hasAnyRole("ADMIN", "MANAGER", "TECHNICIAN")
                 
                 // Qualquer outra requisição precisa estar autenticada
                 .anyRequest().authenticated()
@@ -76,7 +84,8 @@ public class SecurityConfig {
                 "http://127.0.0.1:4173"
         ));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "If-None-Match"));
+        config.setExposedHeaders(List.of("ETag"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
 
@@ -92,8 +101,18 @@ public class SecurityConfig {
         return configuration.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(
+        MeterRegistry meterRegistry,
+        @Value("${security.password.strength:0}") int strength,
+        @Value("${security.password.target-hash-time:PT0.25S}") Duration targetHashTime,
+        @Value("${security.password.threads:0}") int threads,
+        @Value("${security.password.queue-capacity:64}") int queueCapacity,
+        @Value("${security.password.timeout:PT5S}") Duration timeout
+    ) {
+        // strength = 0 -> calibra pelo tempo alvo; threads = 0 -> metade dos processadores
+        int effectiveStrength = strength > 0 ? strength : BoundedPasswordEncoder.calibrate(targetHashTime);
+        int effectiveThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(effectiveStrength, effectiveThreads, queueCapacity, timeout, meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package dev.huggo.vntl_backend.config;
+
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Métricas de JDBC por endpoint: embrulha o DataSource principal ({@link InstrumentedDataSource})
+ * e registra o {@link StatementMetricsInterceptor}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class StatementMetricsConfig implements WebMvcConfigurer {
+
+    private final StatementMetricsInterceptor statementMetricsInterceptor;
+
+    /**
+     * Estático: post-processors são criados antes dos demais beans. Só o bean {@code dataSource}
+     * (o do JPA) é embrulhado; pools auxiliares ficam de fora.
+     */
+    @Bean
+    static BeanPostProcessor statementInstrumentation() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                        ? new InstrumentedDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementMetricsInterceptor);
+    }
+}
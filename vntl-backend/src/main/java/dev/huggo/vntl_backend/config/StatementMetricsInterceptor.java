@@ -0,0 +1,93 @@
+package dev.huggo.vntl_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Publica, por endpoint, o custo de banco de cada requisição medido pelo {@link InstrumentedDataSource}:
+ * histogramas {@code db.statements}, {@code db.rows} e {@code db.time}, com as tags {@code method} e
+ * {@code uri} de {@code http.server.requests}.
+ *
+ * Requisições acima de {@code db.statement-budget} comandos geram um aviso no log e incrementam
+ * {@code db.statement-budget.exceeded}: é assim que um N+1 aparece. Não entram na conta o filtro de
+ * autenticação (antes do handler) nem o trabalho feito em outras threads (SSE, downloads em stream).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StatementMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${db.statement-budget:25}")
+    private int statementBudget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Despacho assíncrono ou de erro: a requisição original já foi contada
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            StatementStats.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        finish(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        finish(request);
+    }
+
+    private void finish(HttpServletRequest request) {
+        // Só fecha o escopo aberto em preHandle; o de fora, se houver, é de quem chamou
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return;
+        }
+        StatementStats stats = StatementStats.stop();
+        if (stats == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("db.statements")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.statements());
+        DistributionSummary.builder("db.rows")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.rows());
+        Timer.builder("db.time")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.nanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.statements() > statementBudget) {
+            Counter.builder("db.statement-budget.exceeded").tags(tags).register(meterRegistry).increment();
+            log.warn("{} {} ran {} statements (budget {}), fetched {} rows in {} ms",
+                    request.getMethod(), uri, stats.statements(), statementBudget, stats.rows(),
+                    stats.nanos() / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.huggo.vntl_backend.config;
+
+/**
+ * Contadores de JDBC de um trecho em andamento na thread: comandos executados, linhas lidas e
+ * tempo de execução. Preenchidos pelo {@link InstrumentedDataSource} enquanto o escopo está aberto;
+ * o {@link StatementMetricsInterceptor} abre um por requisição.
+ *
+ * Escopos se aninham: um escopo aberto dentro de outro repassa o que conta ao de fora, e ao ser
+ * fechado devolve a thread a ele. Assim um teste pode medir um trecho que inclui requisições inteiras.
+ */
+public final class StatementStats {
+
+    private static final ThreadLocal<StatementStats> CURRENT = new ThreadLocal<>();
+
+    private final StatementStats outer;
+
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    private StatementStats(StatementStats outer) {
+        this.outer = outer;
+    }
+
+    /**
+     * Abre um escopo na thread atual; feche com {@link #stop()} num {@code finally}.
+     */
+    public static StatementStats start() {
+        StatementStats stats = new StatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return contadores do escopo atual, ou {@code null} fora de um escopo
+     */
+    static StatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Fecha o escopo atual e volta ao de fora, se houver.
+     *
+     * @return contadores do escopo fechado, ou {@code null} se não havia escopo aberto
+     */
+    public static StatementStats stop() {
+        StatementStats stats = CURRENT.get();
+        if (stats == null) {
+            return null;
+        }
+        if (stats.outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats.outer);
+        }
+        return stats;
+    }
+
+    void executed(long elapsedNanos) {
+        for (StatementStats stats = this; stats != null; stats = stats.outer) {
+            stats.statements++;
+            stats.nanos += elapsedNanos;
+        }
+    }
+
+    void fetched() {
+        for (StatementStats stats = this; stats != null; stats = stats.outer) {
+            stats.rows++;
+        }
+    }
+
+    /**
+     * @return comandos executados; um {@code executeBatch} conta como um
+     */
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+}
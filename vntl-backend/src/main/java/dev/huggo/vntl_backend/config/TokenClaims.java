@@ -0,0 +1,14 @@
+package dev.huggo.vntl_backend.config;
+
+import java.time.Instant;
+
+/**
+ * Claims de um access token já verificado (assinatura e expiração).
+ * Produzido uma única vez por requisição pelo {@link JwtService}.
+ */
+public record TokenClaims(String tokenId, String username, String role, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
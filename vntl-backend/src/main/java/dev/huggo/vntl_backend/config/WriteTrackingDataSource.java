@@ -0,0 +1,65 @@
+package dev.huggo.vntl_backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Primário que anota quem escreveu: após o commit de uma transação de escrita, o usuário
+ * lê do primário por {@code datasource.read-your-writes-window}, para não ver a própria
+ * alteração sumir numa réplica atrasada. A anotação é local a esta instância.
+ */
+final class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    WriteTrackingDataSource(DataSource primary, Duration window) {
+        super(primary);
+        recentWriters = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        trackWriter();
+        return super.getConnection();
+    }
+
+    boolean recentWriter() {
+        String username = currentUsername();
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    private void trackWriter() {
+        // Conexão obtida sob demanda (LazyConnectionDataSourceProxy): a transação já está ativa
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(username, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
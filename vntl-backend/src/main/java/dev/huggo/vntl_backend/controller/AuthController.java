@@ -1,9 +1,13 @@
 package dev.huggo.vntl_backend.controller;
 
 import dev.huggo.vntl_backend.config.JwtService;
+import dev.huggo.vntl_backend.config.TokenClaims;
 import dev.huggo.vntl_backend.domain.User;
+import dev.huggo.vntl_backend.service.AuthService;
 import dev.huggo.vntl_backend.service.dto.LoginRequest;
 import dev.huggo.vntl_backend.service.dto.LoginResponse;
+import dev.huggo.vntl_backend.service.dto.RefreshTokenRequest;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.ResponseEntity;
@@ -12,6 +16,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -22,6 +27,7 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final AuthService authService;
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
@@ -34,10 +40,33 @@ public class AuthController {
         );
 
         User user = (User) authentication.getPrincipal();
-        String token = jwtService.generateToken(user);
-        
-        LoginResponse response = new LoginResponse(token, request.getUsername(), request.getUsername(), "ROLE_ADMIN");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(authService.issueTokens(user));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        authService.logout(
+            request != null ? request.getRefreshToken() : null,
+            accessTokenClaims(authHeader));
+        return ResponseEntity.noContent().build();
+    }
+
+    private TokenClaims accessTokenClaims(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtService.verify(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
 }
@@ -0,0 +1,61 @@
+package dev.huggo.vntl_backend.controller;
+
+import dev.huggo.vntl_backend.config.ReadRouting;
+import java.util.function.Supplier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * GET condicional com ETag. A versão atual é consultada antes de tudo; se o cliente já a tem
+ * ({@code If-None-Match}), a resposta é 304 sem carregar entidades nem serializar JSON.
+ * {@code no-cache} deixa o navegador guardar a resposta e revalidar a cada uso.
+ *
+ * Com ETag, o corpo é lido no primário, de onde a versão também vem: uma réplica atrasada devolveria
+ * dados anteriores à versão, e o cliente guardaria esse corpo sob o ETag novo até a próxima escrita.
+ * Só as respostas 200 pagam por isso; a revalidação (304) não carrega o corpo.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * @param etag versão atual; {@code null} (registro não encontrado) segue sem ETag, e o serviço decide a resposta
+     */
+    static <T> ResponseEntity<T> respond(String ifNoneMatch, String etag, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ReadRouting.onPrimary(body));
+    }
+
+    /**
+     * Comparação fraca, como manda a RFC 9110 para {@code If-None-Match}: ignora o prefixo {@code W/}
+     * que proxies acrescentam ao comprimir a resposta.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package dev.huggo.vntl_backend.controller;
+
+import dev.huggo.vntl_backend.service.DashboardCounters;
+import dev.huggo.vntl_backend.service.dto.DashboardSummaryResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardCounters dashboardCounters;
+
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummaryResponse> summary() {
+        return ResponseEntity.ok(dashboardCounters.summary());
+    }
+}
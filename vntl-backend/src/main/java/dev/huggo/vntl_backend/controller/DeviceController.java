@@ -1,12 +1,29 @@
 package dev.huggo.vntl_backend.controller;
 
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.repository.DeviceFilter;
+import dev.huggo.vntl_backend.service.DeviceImportService;
 import dev.huggo.vntl_backend.service.DeviceService;
+import dev.huggo.vntl_backend.service.ResourceVersions;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
+import dev.huggo.vntl_backend.service.dto.DeviceHistoryResponse;
 import dev.huggo.vntl_backend.service.dto.DeviceRequest;
 import dev.huggo.vntl_backend.service.dto.DeviceResponse;
+import dev.huggo.vntl_backend.service.dto.ImportResponse;
+import dev.huggo.vntl_backend.service.dto.LookupItem;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,6 +32,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,6 +43,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class DeviceController {
 
     private final DeviceService deviceService;
+    private final DeviceImportService deviceImportService;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -32,6 +52,19 @@ public class DeviceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(deviceService.create(request));
     }
 
+    /**
+     * Importação em lote. Corpo em CSV (cabeçalho com os nomes dos campos JSON) ou JSON
+     * (array ou NDJSON); devolve o relatório com os erros por linha.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ImportResponse> importDevices(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        return ResponseEntity.ok(csv ? deviceImportService.importCsv(body) : deviceImportService.importJson(body));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<DeviceResponse> update(@PathVariable Long id, @Valid @RequestBody DeviceRequest request) {
@@ -39,14 +72,71 @@ public class DeviceController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<DeviceResponse> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(deviceService.getById(id));
+    public ResponseEntity<DeviceResponse> getById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(ifNoneMatch, resourceVersions.deviceTag(id), () -> deviceService.getById(id));
     }
 
+    /**
+     * Com {@code fields} (nomes JSON separados por vírgula), cada item traz só o id e esses campos,
+     * e só essas colunas são lidas do banco.
+     */
     @GetMapping
-    public ResponseEntity<List<DeviceResponse>> listAll(
-            @RequestParam(value = "status", required = false) String status) {
-        return ResponseEntity.ok(deviceService.listAll(status));
+    public ResponseEntity<CursorPage<?>> list(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        DeviceFilter filter = new DeviceFilter(parseStatus(status), type);
+        return ConditionalGet.respond(ifNoneMatch, resourceVersions.collectionTag(ChangeEntityType.APARELHO),
+                () -> fields == null || fields.isEmpty()
+                        ? deviceService.list(filter, cursor, limit)
+                        : deviceService.list(filter, fields, cursor, limit));
+    }
+
+    /**
+     * Opções para o campo de aparelho dos formulários: id e "patrimônio - tipo", por padrão só
+     * aparelhos em estoque. {@code q} filtra pelo início do número de patrimônio; {@code include}
+     * acrescenta o aparelho já selecionado.
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<List<LookupItem>> lookup(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(value = "status", defaultValue = "ESTOQUE") String status,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "include", required = false) Long include,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        DeviceStatus parsedStatus = parseStatus(status);
+        return ConditionalGet.respond(ifNoneMatch, resourceVersions.collectionTag(ChangeEntityType.APARELHO),
+                () -> deviceService.lookup(parsedStatus, type, query, include, limit));
+    }
+
+    /**
+     * Alterações e exclusões desde a marca {@code since} de uma resposta anterior.
+     * Sem {@code since}, devolve só a marca inicial e {@code recarregar}.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed<DeviceResponse>> changes(
+            @RequestParam(value = "since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        return ResponseEntity.ok(deviceService.changes(since, limit));
+    }
+
+    /**
+     * Movimentações do aparelho, mais recentes primeiro. O livro é gravado em segundo plano,
+     * então uma alteração pode levar alguns instantes para aparecer.
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<CursorPage<DeviceHistoryResponse>> history(
+            @PathVariable Long id,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.ok(deviceService.history(id, cursor, limit));
     }
 
     @DeleteMapping("/{id}")
@@ -55,4 +145,10 @@ public class DeviceController {
         deviceService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static DeviceStatus parseStatus(String status) {
+        return status == null || status.isBlank()
+                ? null
+                : DeviceStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+    }
 }
@@ -0,0 +1,27 @@
+package dev.huggo.vntl_backend.controller;
+
+import dev.huggo.vntl_backend.service.ChangeEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final ChangeEventBroadcaster broadcaster;
+
+    /**
+     * Stream SSE de avisos de alteração (evento {@code alteracao}) de pacientes, aparelhos e profissionais.
+     * Ao receber {@code recarregar}, o cliente perdeu avisos e deve atualizar tudo o que exibe.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return broadcaster.subscribe(authentication.getName());
+    }
+}
@@ -1,15 +1,34 @@
 package dev.huggo.vntl_backend.controller;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import dev.huggo.vntl_backend.repository.PatientFilter;
+import dev.huggo.vntl_backend.service.ExportFormat;
+import dev.huggo.vntl_backend.service.PatientExportService;
+import dev.huggo.vntl_backend.service.PatientImportService;
 import dev.huggo.vntl_backend.service.PatientService;
+import dev.huggo.vntl_backend.service.ResourceVersions;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
+import dev.huggo.vntl_backend.service.dto.ImportJobResponse;
 import dev.huggo.vntl_backend.service.dto.PatientRequest;
 import dev.huggo.vntl_backend.service.dto.PatientResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,10 +37,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/patients")
@@ -29,6 +50,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientExportService patientExportService;
+    private final PatientImportService patientImportService;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -46,14 +70,101 @@ public class PatientController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PatientResponse> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(patientService.getById(id));
+    public ResponseEntity<PatientResponse> getById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(ifNoneMatch, resourceVersions.patientTag(id), () -> patientService.getById(id));
     }
 
     @GetMapping
-    public ResponseEntity<List<PatientResponse>> listAll(
-            @RequestParam(value = "status", required = false) String status) {
-        return ResponseEntity.ok(patientService.listAll(status));
+    public ResponseEntity<CursorPage<PatientResponse>> list(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "contractType", required = false) String contractType,
+            @RequestParam(value = "professionalId", required = false) Long professionalId,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "nextVisitFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nextVisitFrom,
+            @RequestParam(value = "nextVisitTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nextVisitTo,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        PatientFilter filter = new PatientFilter(
+                parseEnum(PatientStatus.class, status),
+                parseEnum(ContractType.class, contractType),
+                professionalId,
+                city,
+                nextVisitFrom,
+                nextVisitTo);
+        return ConditionalGet.respond(ifNoneMatch, resourceVersions.collectionTag(ChangeEntityType.PACIENTE),
+                () -> patientService.list(filter, cursor, limit));
+    }
+
+    /**
+     * Alterações e exclusões desde a marca {@code since} de uma resposta anterior.
+     * Sem {@code since}, devolve só a marca inicial e {@code recarregar}.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed<PatientResponse>> changes(
+            @RequestParam(value = "since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        return ResponseEntity.ok(patientService.changes(since, limit));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "contractType", required = false) String contractType,
+            @RequestParam(value = "professionalId", required = false) Long professionalId,
+            @RequestParam(value = "city", required = false) String city) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        PatientFilter filter = new PatientFilter(
+                parseEnum(PatientStatus.class, status),
+                parseEnum(ContractType.class, contractType),
+                professionalId,
+                city,
+                null,
+                null);
+        StreamingResponseBody body = out -> patientExportService.export(filter, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"patients." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Inicia a importação de um CSV de pacientes (cabeçalho com os nomes dos campos JSON).
+     * Responde 202 com o id do job; o progresso é consultado em {@code /imports/{jobId}}.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ImportJobResponse> importPatients(InputStream body) throws IOException {
+        ImportJobResponse job = patientImportService.start(body);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/patients/imports/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/imports/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ImportJobResponse> importStatus(@PathVariable String jobId) {
+        return ResponseEntity.of(patientImportService.status(jobId));
+    }
+
+    @GetMapping("/imports/{jobId}/errors")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Resource> importErrors(@PathVariable String jobId) {
+        return patientImportService.errorFile(jobId)
+                .map(path -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"patient-import-" + jobId + "-errors.csv\"")
+                        .<Resource>body(new FileSystemResource(path)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
@@ -72,6 +183,13 @@ public class PatientController {
         return ResponseEntity.ok(patientService.updateLastVisit(id, visitDate));
     }
 
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+    }
+
     public record LastVisitUpdateRequest(
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
             @JsonProperty("dataVisita") LocalDate dataVisita) {}
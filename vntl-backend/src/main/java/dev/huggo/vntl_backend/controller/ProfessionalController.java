@@ -1,11 +1,20 @@
 package dev.huggo.vntl_backend.controller;
 
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
 import dev.huggo.vntl_backend.service.ProfessionalService;
+import dev.huggo.vntl_backend.service.ResourceVersions;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.LookupItem;
 import dev.huggo.vntl_backend.service.dto.ProfessionalRequest;
 import dev.huggo.vntl_backend.service.dto.ProfessionalResponse;
+import dev.huggo.vntl_backend.service.dto.ReassignPatientsRequest;
+import dev.huggo.vntl_backend.service.dto.ReassignPatientsResponse;
 import jakarta.validation.Valid;
+import java.time.Instant;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,7 +24,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -24,6 +35,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProfessionalController {
 
     private final ProfessionalService professionalService;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -40,13 +52,51 @@ public class ProfessionalController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProfessionalResponse> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(professionalService.getById(id));
+    public ResponseEntity<ProfessionalResponse> getById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(ifNoneMatch, resourceVersions.professionalTag(id),
+                () -> professionalService.getById(id));
     }
 
+    /**
+     * Com {@code fields} (nomes JSON separados por vírgula), cada item traz só o id e esses campos;
+     * a carteira só é agregada se {@code pacientesCount} ou {@code pacientesIds} forem pedidos.
+     */
     @GetMapping
-    public ResponseEntity<List<ProfessionalResponse>> listAll() {
-        return ResponseEntity.ok(professionalService.listAll());
+    public ResponseEntity<List<?>> listAll(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(value = "includePatientIds", defaultValue = "true") boolean includePatientIds,
+            @RequestParam(value = "fields", required = false) List<String> fields) {
+        return ConditionalGet.respond(ifNoneMatch, resourceVersions.collectionTag(ChangeEntityType.PROFISSIONAL),
+                () -> fields == null || fields.isEmpty()
+                        ? professionalService.listAll(includePatientIds)
+                        : professionalService.listAll(fields));
+    }
+
+    /**
+     * Opções para o campo de profissional dos formulários: id e nome dos profissionais ativos.
+     * {@code q} filtra pelo início do nome.
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<List<LookupItem>> lookup(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return ConditionalGet.respond(ifNoneMatch, resourceVersions.collectionTag(ChangeEntityType.PROFISSIONAL),
+                () -> professionalService.lookup(query, limit));
+    }
+
+    /**
+     * Alterações e exclusões desde a marca {@code since} de uma resposta anterior.
+     * Sem {@code since}, devolve só a marca inicial e {@code recarregar}.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed<ProfessionalResponse>> changes(
+            @RequestParam(value = "since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        return ResponseEntity.ok(professionalService.changes(since, limit));
     }
 
     @DeleteMapping("/{id}")
@@ -75,5 +125,13 @@ public class ProfessionalController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/patients/reassign")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ReassignPatientsResponse> reassignPatients(
+            @PathVariable Long id,
+            @RequestBody ReassignPatientsRequest body) {
+        return ResponseEntity.ok(professionalService.reassignPatients(id, body));
+    }
+
     public record AssignPatientRequest(Long patientId) {}
 }
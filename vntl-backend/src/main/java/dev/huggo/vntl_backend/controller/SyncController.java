@@ -0,0 +1,32 @@
+package dev.huggo.vntl_backend.controller;
+
+import dev.huggo.vntl_backend.service.SyncService;
+import dev.huggo.vntl_backend.service.dto.SyncRequest;
+import dev.huggo.vntl_backend.service.dto.SyncResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * Aplica as operações registradas offline e devolve as visitas alteradas desde a última sincronização.
+     * Cada operação tem seu próprio resultado; uma operação recusada não impede as demais.
+     */
+    @PostMapping
+    public ResponseEntity<SyncResponse> sync(@Valid @RequestBody SyncRequest request, Authentication authentication) {
+        boolean canDelete = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") || a.getAuthority().equals("ROLE_MANAGER"));
+        return ResponseEntity.ok(syncService.sync(request, authentication.getName(), canDelete));
+    }
+}
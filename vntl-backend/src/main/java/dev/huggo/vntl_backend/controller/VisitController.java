@@ -0,0 +1,70 @@
+package dev.huggo.vntl_backend.controller;
+
+import dev.huggo.vntl_backend.repository.VisitFilter;
+import dev.huggo.vntl_backend.service.VisitService;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
+import dev.huggo.vntl_backend.service.dto.VisitRequest;
+import dev.huggo.vntl_backend.service.dto.VisitResponse;
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/visits")
+@RequiredArgsConstructor
+public class VisitController {
+
+    private final VisitService visitService;
+
+    @PostMapping
+    public ResponseEntity<VisitResponse> create(@Valid @RequestBody VisitRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(visitService.create(request));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<VisitResponse> update(@PathVariable Long id, @Valid @RequestBody VisitRequest request) {
+        return ResponseEntity.ok(visitService.update(id, request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<VisitResponse> getById(@PathVariable Long id) {
+        return ResponseEntity.ok(visitService.getById(id));
+    }
+
+    /**
+     * Visitas da mais recente para a mais antiga, filtradas por paciente, profissional e/ou intervalo de datas.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<VisitResponse>> list(
+            @RequestParam(value = "patientId", required = false) Long patientId,
+            @RequestParam(value = "professionalId", required = false) Long professionalId,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        VisitFilter filter = new VisitFilter(patientId, professionalId, from, to);
+        return ResponseEntity.ok(visitService.list(filter, cursor, limit));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        visitService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,7 @@
+package dev.huggo.vntl_backend.domain;
+
+public enum ChangeEntityType {
+    PACIENTE,
+    APARELHO,
+    PROFISSIONAL
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,8 +26,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 @AllArgsConstructor
 public class Device {
 
+    // Sequência com pooled optimizer (allocationSize = INCREMENT BY da sequência) para permitir batch de INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "devices_id_seq")
+    @SequenceGenerator(name = "devices_id_seq", sequenceName = "devices_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "asset_number", nullable = false, unique = true, length = 50)
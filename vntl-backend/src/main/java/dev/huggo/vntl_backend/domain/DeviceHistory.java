@@ -0,0 +1,57 @@
+package dev.huggo.vntl_backend.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Registro do livro de movimentações de aparelhos. Somente leitura pelo JPA:
+ * as linhas são gravadas em lote pelo {@code DeviceHistoryWriter}.
+ */
+@Entity
+@Table(name = "device_history")
+@Immutable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "device_id", nullable = false)
+    private Long deviceId;
+
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 50)
+    private DeviceStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", nullable = false, length = 50)
+    private DeviceStatus newStatus;
+
+    @Column(name = "movement_date")
+    private LocalDateTime movementDate;
+
+    @Column(name = "observations", columnDefinition = "TEXT")
+    private String observations;
+
+    @Column(name = "user_id")
+    private Long userId;
+}
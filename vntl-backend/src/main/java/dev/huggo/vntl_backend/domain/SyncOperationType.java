@@ -0,0 +1,8 @@
+package dev.huggo.vntl_backend.domain;
+
+public enum SyncOperationType {
+    CRIAR_VISITA,
+    ATUALIZAR_VISITA,
+    EXCLUIR_VISITA,
+    ULTIMA_VISITA
+}
@@ -0,0 +1,61 @@
+package dev.huggo.vntl_backend.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Comprovante de uma operação de sincronização já aplicada, pela chave de idempotência do cliente.
+ * A chave é gerada no aparelho do técnico, por isso só é única por usuário.
+ */
+@Entity
+@Table(name = "sync_receipts")
+@IdClass(SyncReceipt.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncReceipt {
+
+    @Id
+    @Column(name = "username", nullable = false, length = 100)
+    private String username;
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation_type", nullable = false, length = 30)
+    private SyncOperationType operationType;
+
+    @Column(name = "visit_id")
+    private Long visitId;
+
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    @CreationTimestamp
+    @Column(name = "applied_at", nullable = false, updatable = false)
+    private LocalDateTime appliedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String username;
+        private String idempotencyKey;
+    }
+}
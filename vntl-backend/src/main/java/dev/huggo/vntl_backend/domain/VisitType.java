@@ -0,0 +1,8 @@
+package dev.huggo.vntl_backend.domain;
+
+public enum VisitType {
+    INSTALACAO,
+    MANUTENCAO,
+    RETIRADA,
+    ROTINA
+}
@@ -0,0 +1,29 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.DeletedRecord;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeletedRecordRepository extends JpaRepository<DeletedRecord, Long> {
+
+    /**
+     * Exclusões a partir de {@code since}, em ordem de exclusão; usa {@code idx_deleted_records_type_date_id}.
+     */
+    @Query("SELECT r FROM DeletedRecord r WHERE r.entityType = :type AND r.deletedAt >= :since " +
+            "ORDER BY r.deletedAt, r.id")
+    List<DeletedRecord> findDeletedSince(@Param("type") ChangeEntityType type,
+                                         @Param("since") LocalDateTime since,
+                                         Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM DeletedRecord r WHERE r.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") LocalDateTime before);
+}
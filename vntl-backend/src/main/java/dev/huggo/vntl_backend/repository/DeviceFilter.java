@@ -0,0 +1,9 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+
+/**
+ * Filtros opcionais da listagem de aparelhos; campos nulos são ignorados.
+ */
+public record DeviceFilter(DeviceStatus status, String type) {
+}
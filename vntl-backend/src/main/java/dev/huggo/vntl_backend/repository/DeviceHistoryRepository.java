@@ -0,0 +1,30 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.DeviceHistory;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeviceHistoryRepository extends JpaRepository<DeviceHistory, Long> {
+
+    @Query("SELECT h FROM DeviceHistory h WHERE h.deviceId = :deviceId " +
+            "ORDER BY h.movementDate DESC, h.id DESC")
+    List<DeviceHistory> findLatest(@Param("deviceId") Long deviceId, Limit limit);
+
+    /**
+     * Página seguinte ao cursor {@code (movementDate, id)}; usa o índice
+     * {@code idx_device_history_device_date}.
+     */
+    @Query("SELECT h FROM DeviceHistory h WHERE h.deviceId = :deviceId " +
+            "AND (h.movementDate < :movementDate OR (h.movementDate = :movementDate AND h.id < :id)) " +
+            "ORDER BY h.movementDate DESC, h.id DESC")
+    List<DeviceHistory> findBefore(@Param("deviceId") Long deviceId,
+                                   @Param("movementDate") LocalDateTime movementDate,
+                                   @Param("id") Long id,
+                                   Limit limit);
+}
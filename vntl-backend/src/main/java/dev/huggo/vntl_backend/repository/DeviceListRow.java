@@ -0,0 +1,23 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de aparelho com o paciente vinculado (id e nome), lida numa única query.
+ */
+public record DeviceListRow(
+        Long id,
+        String assetNumber,
+        String type,
+        String brand,
+        String model,
+        String serialNumber,
+        LocalDate purchaseDate,
+        DeviceStatus status,
+        Long patientId,
+        String patientName,
+        String observations,
+        LocalDateTime updatedAt) {
+}
@@ -2,13 +2,57 @@ package dev.huggo.vntl_backend.repository;
 
 import dev.huggo.vntl_backend.domain.Device;
 import dev.huggo.vntl_backend.domain.DeviceStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface DeviceRepository extends JpaRepository<Device, Long> {
+public interface DeviceRepository extends JpaRepository<Device, Long>, DeviceRepositoryCustom {
     Optional<Device> findByAssetNumber(String assetNumber);
     List<Device> findByStatus(DeviceStatus status);
+
+    /**
+     * Troca o status apenas se o aparelho ainda estiver em {@code expected} (compare-and-set).
+     * Concorrentes no mesmo aparelho são serializados pelo lock da linha; o perdedor recebe 0.
+     *
+     * @param now {@code LocalDateTime.now()}, gravado como o {@code @UpdateTimestamp}
+     * @return 1 se a transição foi aplicada, 0 caso contrário
+     */
+    @Modifying
+    @Query("UPDATE Device d SET d.status = :next, d.updatedAt = :now " +
+            "WHERE d.id = :id AND d.status = :expected")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("expected") DeviceStatus expected,
+                         @Param("next") DeviceStatus next,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Marca o aparelho como alterado (nome do paciente vinculado mudou), para o feed de alterações.
+     *
+     * @param now {@code LocalDateTime.now()}, gravado como o {@code @UpdateTimestamp}
+     */
+    @Modifying
+    @Query("UPDATE Device d SET d.updatedAt = :now WHERE d.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Versão do aparelho para o ETag, sem carregar a entidade.
+     */
+    @Query("SELECT d.updatedAt FROM Device d WHERE d.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Quais dos números de patrimônio já estão cadastrados, numa única consulta.
+     */
+    @Query("SELECT d.assetNumber FROM Device d WHERE d.assetNumber IN :assetNumbers")
+    List<String> findExistingAssetNumbers(@Param("assetNumbers") Collection<String> assetNumbers);
+
+    @Query("SELECT d.status, COUNT(d) FROM Device d GROUP BY d.status")
+    List<Object[]> countGroupedByStatus();
 }
@@ -0,0 +1,35 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface DeviceRepositoryCustom {
+
+    /**
+     * Página de aparelhos ordenada por (número de patrimônio, id), começando após {@code after}.
+     */
+    List<DeviceListRow> findPage(DeviceFilter filter, KeysetCursor after, int limit);
+
+    /**
+     * Mesma página, selecionando só as colunas de {@code fields} (nomes JSON); o paciente só entra
+     * no join se um campo dele for pedido.
+     *
+     * @throws IllegalArgumentException para campo desconhecido
+     */
+    List<ProjectedRow> findPage(DeviceFilter filter, KeysetCursor after, int limit, Collection<String> fields);
+
+    /**
+     * Itens de seleção (patrimônio e tipo) com o número de patrimônio começando por {@code prefix}.
+     */
+    List<LookupRow> findLookup(DeviceStatus status, String type, String prefix, int limit);
+
+    Optional<DeviceListRow> findRowById(Long id);
+
+    /**
+     * Aparelhos alterados a partir de {@code since}, em ordem de alteração (índice {@code idx_devices_updated_at_id}).
+     */
+    List<DeviceListRow> findChangedSince(LocalDateTime since, int limit);
+}
@@ -0,0 +1,145 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class DeviceRepositoryImpl implements DeviceRepositoryCustom {
+
+    static final String LIST_ROW_SELECT = "SELECT new dev.huggo.vntl_backend.repository.DeviceListRow(" +
+            "d.id, d.assetNumber, d.type, d.brand, d.model, d.serialNumber, d.purchaseDate, d.status, " +
+            "p.id, p.name, d.observations, d.updatedAt) " +
+            "FROM Device d " +
+            "LEFT JOIN Patient p ON p.deviceId = d.id ";
+
+    // Campos aceitos em fields= (nomes JSON de DeviceResponse) e a expressão de cada um
+    private static final Map<String, String> FIELDS = Map.of(
+            "numeroPatrimonio", "d.assetNumber",
+            "tipo", "d.type",
+            "marca", "d.brand",
+            "modelo", "d.model",
+            "numeroSerie", "d.serialNumber",
+            "dataCompra", "d.purchaseDate",
+            "status", "d.status",
+            "pacienteId", "p.id",
+            "pacienteNome", "p.name",
+            "observacoes", "d.observations");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DeviceListRow> findPage(DeviceFilter filter, KeysetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(LIST_ROW_SELECT);
+        Map<String, Object> params = new HashMap<>();
+        appendPageWhere(jpql, params, filter, after);
+
+        TypedQuery<DeviceListRow> query = entityManager.createQuery(jpql.toString(), DeviceListRow.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<ProjectedRow> findPage(DeviceFilter filter, KeysetCursor after, int limit, Collection<String> fields) {
+        List<String> names = new ArrayList<>(new LinkedHashSet<>(fields));
+        names.remove("id");
+        StringBuilder jpql = new StringBuilder("SELECT d.id, d.assetNumber");
+        boolean joinPatient = false;
+        for (String name : names) {
+            String expression = FIELDS.get(name);
+            if (expression == null) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            jpql.append(", ").append(expression);
+            joinPatient |= expression.startsWith("p.");
+        }
+        jpql.append(" FROM Device d ");
+        if (joinPatient) {
+            jpql.append("LEFT JOIN Patient p ON p.deviceId = d.id ");
+        }
+        Map<String, Object> params = new HashMap<>();
+        appendPageWhere(jpql, params, filter, after);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList().stream()
+                .map(values -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("id", values[0]);
+                    for (int i = 0; i < names.size(); i++) {
+                        row.put(names.get(i), values[i + 2]);
+                    }
+                    return new ProjectedRow((Long) values[0], (String) values[1], row);
+                })
+                .toList();
+    }
+
+    @Override
+    public List<LookupRow> findLookup(DeviceStatus status, String type, String prefix, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT new dev.huggo.vntl_backend.repository.LookupRow(" +
+                "d.id, d.assetNumber, d.type) FROM Device d WHERE LOWER(d.assetNumber) LIKE :prefix ESCAPE '\\' ");
+        Map<String, Object> params = new HashMap<>();
+        params.put("prefix", LookupRow.prefixPattern(prefix));
+        if (status != null) {
+            jpql.append("AND d.status = :status ");
+            params.put("status", status);
+        }
+        if (type != null && !type.isBlank()) {
+            jpql.append("AND d.type = :type ");
+            params.put("type", type.trim());
+        }
+        jpql.append("ORDER BY d.assetNumber, d.id");
+
+        TypedQuery<LookupRow> query = entityManager.createQuery(jpql.toString(), LookupRow.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static void appendPageWhere(StringBuilder jpql, Map<String, Object> params,
+                                        DeviceFilter filter, KeysetCursor after) {
+        jpql.append("WHERE 1 = 1 ");
+        if (filter != null && filter.status() != null) {
+            jpql.append("AND d.status = :status ");
+            params.put("status", filter.status());
+        }
+        if (filter != null && filter.type() != null && !filter.type().isBlank()) {
+            jpql.append("AND d.type = :type ");
+            params.put("type", filter.type().trim());
+        }
+        if (after != null) {
+            jpql.append("AND (d.assetNumber > :afterKey OR (d.assetNumber = :afterKey AND d.id > :afterId)) ");
+            params.put("afterKey", after.key());
+            params.put("afterId", after.id());
+        }
+        jpql.append("ORDER BY d.assetNumber, d.id");
+    }
+
+    @Override
+    public List<DeviceListRow> findChangedSince(LocalDateTime since, int limit) {
+        return entityManager.createQuery(LIST_ROW_SELECT + "WHERE d.updatedAt >= :since ORDER BY d.updatedAt, d.id",
+                        DeviceListRow.class)
+                .setParameter("since", since)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<DeviceListRow> findRowById(Long id) {
+        return entityManager.createQuery(LIST_ROW_SELECT + "WHERE d.id = :id", DeviceListRow.class)
+                .setParameter("id", id)
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+}
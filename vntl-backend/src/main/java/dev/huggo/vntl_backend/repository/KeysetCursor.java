@@ -0,0 +1,31 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de uma página em paginação por keyset: a chave de ordenação e o id
+ * do último registro devolvido. Serializado como string opaca (base64url) para o cliente.
+ */
+public record KeysetCursor(String key, Long id) {
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            Long id = Long.valueOf(decoded.substring(0, separator));
+            String key = separator + 1 < decoded.length() ? decoded.substring(separator + 1) : null;
+            return new KeysetCursor(key, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = id + ":" + (key != null ? key : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
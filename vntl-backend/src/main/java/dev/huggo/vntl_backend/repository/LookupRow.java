@@ -0,0 +1,29 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.util.Locale;
+
+/**
+ * Item de seleção (id e rótulo) para os campos de formulário; {@code detail} complementa o rótulo.
+ */
+public record LookupRow(
+        Long id,
+        String label,
+        String detail) {
+
+    public LookupRow(Long id, String label) {
+        this(id, label, null);
+    }
+
+    /**
+     * Padrão {@code LIKE} de prefixo, sem diferenciar maiúsculas; curingas digitados são escapados.
+     */
+    static String prefixPattern(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return "%";
+        }
+        return prefix.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
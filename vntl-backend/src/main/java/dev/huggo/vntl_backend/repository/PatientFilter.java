@@ -0,0 +1,17 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import java.time.LocalDate;
+
+/**
+ * Filtros opcionais da listagem de pacientes; campos nulos são ignorados.
+ */
+public record PatientFilter(
+        PatientStatus status,
+        ContractType contractType,
+        Long professionalId,
+        String city,
+        LocalDate nextVisitFrom,
+        LocalDate nextVisitTo) {
+}
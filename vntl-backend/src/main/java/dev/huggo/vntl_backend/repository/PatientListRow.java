@@ -0,0 +1,39 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção da listagem de pacientes, já com o tipo/patrimônio do aparelho e o nome
+ * do profissional responsável, lida numa única query sem carregar entidades.
+ */
+public record PatientListRow(
+        Long id,
+        String name,
+        String cpf,
+        LocalDate birthDate,
+        String phone,
+        String secondaryPhone,
+        String email,
+        String addressStreet,
+        String addressNumber,
+        String addressComplement,
+        String addressNeighborhood,
+        String addressCity,
+        String addressState,
+        String addressZipCode,
+        ContractType contractType,
+        PatientStatus status,
+        LocalDate registrationDate,
+        LocalDate lastVisitDate,
+        LocalDate nextVisitDate,
+        Long deviceId,
+        String deviceType,
+        String deviceAssetNumber,
+        Long professionalResponsibleId,
+        String professionalResponsibleName,
+        String observations,
+        LocalDateTime updatedAt) {
+}
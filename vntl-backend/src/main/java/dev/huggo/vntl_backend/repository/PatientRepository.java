@@ -3,20 +3,45 @@ package dev.huggo.vntl_backend.repository;
 import dev.huggo.vntl_backend.domain.ContractType;
 import dev.huggo.vntl_backend.domain.Patient;
 import dev.huggo.vntl_backend.domain.PatientStatus;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, PatientRepositoryCustom {
 
     Optional<Patient> findByCpf(String cpf);
 
+    /**
+     * Carrega o paciente com lock de escrita; serializa o recálculo das datas de visita.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Patient p WHERE p.id = :id")
+    Optional<Patient> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Versão do paciente para o ETag, sem carregar a entidade.
+     */
+    @Query("SELECT p.updatedAt FROM Patient p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Quais dos CPFs já estão cadastrados, numa única consulta.
+     */
+    @Query("SELECT p.cpf FROM Patient p WHERE p.cpf IN :cpfs")
+    List<String> findExistingCpfs(@Param("cpfs") Collection<String> cpfs);
+
     Page<Patient> findByStatus(PatientStatus status, Pageable pageable);
 
     Page<Patient> findByContractType(ContractType contractType, Pageable pageable);
@@ -25,28 +50,29 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
 
     Optional<Patient> findByDeviceId(Long deviceId);
 
+    @Query("SELECT p.id FROM Patient p WHERE p.professionalResponsibleId = :professionalId ORDER BY p.id")
+    List<Long> findIdsByProfessionalResponsibleId(@Param("professionalId") Long professionalId);
+
     /**
-     * Query otimizada que retorna o ID do paciente, nome do profissional responsável e tipo do equipamento
-     * usando LEFT JOIN para evitar N+1 queries.
-     * Retorna um array onde [0] = patientId (Long), [1] = professionalName (String), [2] = deviceType (String).
+     * Marca como alterados os pacientes que exibem o nome do profissional, para o feed de alterações.
+     *
+     * @param now {@code LocalDateTime.now()}, gravado como o {@code @UpdateTimestamp}; o
+     *            {@code CURRENT_TIMESTAMP} do banco viria no fuso da sessão, não em UTC
      */
-    @Query(value = "SELECT p.id, pr.name, d.type " +
-            "FROM patients p " +
-            "LEFT JOIN professionals pr ON p.professional_responsible_id = pr.id " +
-            "LEFT JOIN devices d ON p.device_id = d.id",
-            nativeQuery = true)
-    List<Object[]> findAllPatientIdsWithProfessionalNames();
+    @Modifying
+    @Query("UPDATE Patient p SET p.updatedAt = :now WHERE p.professionalResponsibleId = :professionalId")
+    int touchByProfessional(@Param("professionalId") Long professionalId, @Param("now") LocalDateTime now);
 
     /**
-     * Query otimizada que retorna o ID do paciente, nome do profissional responsável e tipo do equipamento
-     * filtrados por status usando LEFT JOIN para evitar N+1 queries.
-     * Retorna um array onde [0] = patientId (Long), [1] = professionalName (String), [2] = deviceType (String).
+     * Marca como alterado o paciente que exibe o tipo/patrimônio do aparelho, para o feed de alterações.
      */
-    @Query(value = "SELECT p.id, pr.name, d.type " +
-            "FROM patients p " +
-            "LEFT JOIN professionals pr ON p.professional_responsible_id = pr.id " +
-            "LEFT JOIN devices d ON p.device_id = d.id " +
-            "WHERE p.status = :status",
-            nativeQuery = true)
-    List<Object[]> findPatientIdsWithProfessionalNamesByStatus(@Param("status") String status);
+    @Modifying
+    @Query("UPDATE Patient p SET p.updatedAt = :now WHERE p.deviceId = :deviceId")
+    int touchByDevice(@Param("deviceId") Long deviceId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.status, COUNT(p) FROM Patient p GROUP BY p.status")
+    List<Object[]> countGroupedByStatus();
+
+    @Query("SELECT p.nextVisitDate, COUNT(p) FROM Patient p WHERE p.nextVisitDate >= :from GROUP BY p.nextVisitDate")
+    List<Object[]> countGroupedByNextVisitDateFrom(@Param("from") LocalDate from);
 }
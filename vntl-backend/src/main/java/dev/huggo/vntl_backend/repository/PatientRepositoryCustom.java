@@ -0,0 +1,28 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PatientRepositoryCustom {
+
+    /**
+     * Página de pacientes ordenada por (nome, id), começando após {@code after}.
+     */
+    List<PatientListRow> findPage(PatientFilter filter, KeysetCursor after, int limit);
+
+    /**
+     * Pacientes alterados a partir de {@code since}, em ordem de alteração (índice {@code idx_patients_updated_at_id}).
+     */
+    List<PatientListRow> findChangedSince(LocalDateTime since, int limit);
+
+    /**
+     * Move, num único UPDATE, os pacientes de {@code sourceProfessionalId} para
+     * {@code targetProfessionalId} ({@code null} desvincula). Restringe aos {@code patientIds}
+     * quando informados e aos demais critérios de {@code filter} (o profissional do filtro é ignorado).
+     * Nenhuma entidade é carregada.
+     *
+     * @return quantidade de pacientes alterados
+     */
+    int reassign(Long sourceProfessionalId, Long targetProfessionalId, Collection<Long> patientIds, PatientFilter filter);
+}
@@ -0,0 +1,111 @@
+package dev.huggo.vntl_backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+class PatientRepositoryImpl implements PatientRepositoryCustom {
+
+    static final String LIST_ROW_SELECT = "SELECT new dev.huggo.vntl_backend.repository.PatientListRow(" +
+            "p.id, p.name, p.cpf, p.birthDate, p.phone, p.secondaryPhone, p.email, " +
+            "p.addressStreet, p.addressNumber, p.addressComplement, p.addressNeighborhood, " +
+            "p.addressCity, p.addressState, p.addressZipCode, p.contractType, p.status, " +
+            "p.registrationDate, p.lastVisitDate, p.nextVisitDate, " +
+            "p.deviceId, d.type, d.assetNumber, p.professionalResponsibleId, pr.name, p.observations, p.updatedAt) " +
+            "FROM Patient p " +
+            "LEFT JOIN Device d ON d.id = p.deviceId " +
+            "LEFT JOIN Professional pr ON pr.id = p.professionalResponsibleId ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PatientListRow> findPage(PatientFilter filter, KeysetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(LIST_ROW_SELECT).append("WHERE 1 = 1 ");
+        Map<String, Object> params = new HashMap<>();
+
+        appendFilter(filter, jpql, params);
+        if (after != null) {
+            jpql.append("AND (p.name > :afterName OR (p.name = :afterName AND p.id > :afterId)) ");
+            params.put("afterName", after.key());
+            params.put("afterId", after.id());
+        }
+        jpql.append("ORDER BY p.name, p.id");
+
+        TypedQuery<PatientListRow> query = entityManager.createQuery(jpql.toString(), PatientListRow.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<PatientListRow> findChangedSince(LocalDateTime since, int limit) {
+        return entityManager.createQuery(LIST_ROW_SELECT + "WHERE p.updatedAt >= :since ORDER BY p.updatedAt, p.id",
+                        PatientListRow.class)
+                .setParameter("since", since)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int reassign(Long sourceProfessionalId, Long targetProfessionalId, Collection<Long> patientIds,
+                        PatientFilter filter) {
+        StringBuilder jpql = new StringBuilder("UPDATE Patient p " +
+                "SET p.professionalResponsibleId = :target, p.updatedAt = :now " +
+                "WHERE p.professionalResponsibleId = :source ");
+        Map<String, Object> params = new HashMap<>();
+        params.put("target", targetProfessionalId);
+        // Como o @UpdateTimestamp; o CURRENT_TIMESTAMP do banco viria no fuso da sessão, não em UTC
+        params.put("now", LocalDateTime.now());
+        params.put("source", sourceProfessionalId);
+
+        if (patientIds != null && !patientIds.isEmpty()) {
+            jpql.append("AND p.id IN :patientIds ");
+            params.put("patientIds", patientIds);
+        }
+        if (filter != null) {
+            appendFilter(new PatientFilter(filter.status(), filter.contractType(), null, filter.city(),
+                    filter.nextVisitFrom(), filter.nextVisitTo()), jpql, params);
+        }
+
+        Query update = entityManager.createQuery(jpql.toString());
+        params.forEach(update::setParameter);
+        return update.executeUpdate();
+    }
+
+    static void appendFilter(PatientFilter filter, StringBuilder jpql, Map<String, Object> params) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.status() != null) {
+            jpql.append("AND p.status = :status ");
+            params.put("status", filter.status());
+        }
+        if (filter.contractType() != null) {
+            jpql.append("AND p.contractType = :contractType ");
+            params.put("contractType", filter.contractType());
+        }
+        if (filter.professionalId() != null) {
+            jpql.append("AND p.professionalResponsibleId = :professionalId ");
+            params.put("professionalId", filter.professionalId());
+        }
+        if (filter.city() != null && !filter.city().isBlank()) {
+            jpql.append("AND lower(p.addressCity) = :city ");
+            params.put("city", filter.city().trim().toLowerCase(Locale.ROOT));
+        }
+        if (filter.nextVisitFrom() != null) {
+            jpql.append("AND p.nextVisitDate >= :nextVisitFrom ");
+            params.put("nextVisitFrom", filter.nextVisitFrom());
+        }
+        if (filter.nextVisitTo() != null) {
+            jpql.append("AND p.nextVisitDate <= :nextVisitTo ");
+            params.put("nextVisitTo", filter.nextVisitTo());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Profissional com a carteira de pacientes agregada (quantidade e, opcionalmente, os ids).
+ * {@code patientIds} é nulo quando a consulta é feita sem os ids.
+ */
+public record ProfessionalCaseloadRow(
+        Long id,
+        String name,
+        String cpf,
+        String phone,
+        String secondaryPhone,
+        String email,
+        Boolean active,
+        String observations,
+        LocalDateTime createdAt,
+        long patientsCount,
+        List<Long> patientIds,
+        LocalDateTime updatedAt) {
+}
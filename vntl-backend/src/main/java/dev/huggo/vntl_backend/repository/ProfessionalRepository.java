@@ -1,11 +1,36 @@
 package dev.huggo.vntl_backend.repository;
 
 import dev.huggo.vntl_backend.domain.Professional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProfessionalRepository extends JpaRepository<Professional, Long> {
+public interface ProfessionalRepository extends JpaRepository<Professional, Long>, ProfessionalRepositoryCustom {
     Optional<Professional> findByCpf(String cpf);
+
+    @Query("SELECT p.active, COUNT(p) FROM Professional p GROUP BY p.active")
+    List<Object[]> countGroupedByActive();
+
+    /**
+     * Marca os profissionais como alterados (carteira mudou sem alterar a linha do profissional),
+     * para que voltem no feed de alterações.
+     *
+     * @param now {@code LocalDateTime.now()}, gravado como o {@code @UpdateTimestamp}
+     */
+    @Modifying
+    @Query("UPDATE Professional p SET p.updatedAt = :now WHERE p.id IN :ids")
+    int touch(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Versão do profissional para o ETag, sem carregar a entidade.
+     */
+    @Query("SELECT p.updatedAt FROM Professional p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
@@ -0,0 +1,34 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProfessionalRepositoryCustom {
+
+    /**
+     * Todos os profissionais com a carteira agregada, numa única query agrupada.
+     */
+    List<ProfessionalCaseloadRow> findAllCaseloads(boolean includePatientIds);
+
+    /**
+     * Todos os profissionais selecionando só as colunas de {@code fields} (nomes JSON); sem campos
+     * da carteira, a consulta não faz join nem agrupamento.
+     *
+     * @throws IllegalArgumentException para campo desconhecido
+     */
+    List<ProjectedRow> findAllProjected(Collection<String> fields);
+
+    /**
+     * Profissionais ativos com o nome começando por {@code prefix}, para seleção em formulários.
+     */
+    List<LookupRow> findActiveLookup(String prefix, int limit);
+
+    Optional<ProfessionalCaseloadRow> findCaseloadById(Long id);
+
+    /**
+     * Profissionais alterados a partir de {@code since}, em ordem de alteração, com a carteira completa.
+     */
+    List<ProfessionalCaseloadRow> findChangedSince(LocalDateTime since, int limit);
+}
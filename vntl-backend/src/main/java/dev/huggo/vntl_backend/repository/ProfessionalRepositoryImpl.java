@@ -0,0 +1,170 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+class ProfessionalRepositoryImpl implements ProfessionalRepositoryCustom {
+
+    // As colunas guardam a hora UTC (hibernate.jdbc.time_zone); o JDBC puro não converte, então
+    // a conversão do JPA para o fuso da JVM é feita aqui, nos dois sentidos
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final String SELECT = "SELECT pr.id, pr.name, pr.cpf, pr.phone, pr.secondary_phone, pr.email, " +
+            "pr.active, pr.observations, pr.created_at, pr.updated_at, COUNT(p.id) AS patients_count";
+
+    private static final String PATIENT_IDS =
+            ", COALESCE(array_agg(p.id ORDER BY p.id) FILTER (WHERE p.id IS NOT NULL), '{}') AS patient_ids";
+
+    private static final String FROM = " FROM professionals pr " +
+            "LEFT JOIN patients p ON p.professional_responsible_id = pr.id ";
+
+    // Campos aceitos em fields= (nomes JSON de ProfessionalResponse) e a expressão SQL de cada um;
+    // as agregações da carteira exigem o join com pacientes
+    private static final Map<String, String> FIELDS = Map.of(
+            "nome", "pr.name",
+            "cpf", "pr.cpf",
+            "telefone", "pr.phone",
+            "telefoneSecundario", "pr.secondary_phone",
+            "email", "pr.email",
+            "ativo", "pr.active",
+            "observacoes", "pr.observations",
+            "dataRegistro", "pr.created_at",
+            "pacientesCount", "COUNT(p.id)",
+            "pacientesIds", "COALESCE(array_agg(p.id ORDER BY p.id) FILTER (WHERE p.id IS NOT NULL), '{}')");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    ProfessionalRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<ProfessionalCaseloadRow> findAllCaseloads(boolean includePatientIds) {
+        String sql = SELECT + (includePatientIds ? PATIENT_IDS : "") + FROM +
+                "GROUP BY pr.id ORDER BY pr.name, pr.id";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> toRow(rs, includePatientIds));
+    }
+
+    @Override
+    public Optional<ProfessionalCaseloadRow> findCaseloadById(Long id) {
+        String sql = SELECT + PATIENT_IDS + FROM + "WHERE pr.id = :id GROUP BY pr.id";
+        return jdbcTemplate.query(sql, Map.of("id", id), (rs, rowNum) -> toRow(rs, true))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<ProfessionalCaseloadRow> findChangedSince(LocalDateTime since, int limit) {
+        // Filtra e limita antes do agrupamento, para o join só ver os profissionais alterados
+        String sql = SELECT + PATIENT_IDS +
+                " FROM (SELECT * FROM professionals WHERE updated_at >= :since ORDER BY updated_at, id LIMIT :limit) pr " +
+                "LEFT JOIN patients p ON p.professional_responsible_id = pr.id " +
+                "GROUP BY pr.id, pr.name, pr.cpf, pr.phone, pr.secondary_phone, pr.email, pr.active, pr.observations, " +
+                "pr.created_at, pr.updated_at ORDER BY pr.updated_at, pr.id";
+        return jdbcTemplate.query(sql, Map.of("since", toUtc(since), "limit", limit), (rs, rowNum) -> toRow(rs, true));
+    }
+
+    @Override
+    public List<ProjectedRow> findAllProjected(Collection<String> fields) {
+        List<String> names = new ArrayList<>(new LinkedHashSet<>(fields));
+        names.remove("id");
+        StringBuilder sql = new StringBuilder("SELECT pr.id, pr.name AS sort_key");
+        boolean joinPatients = false;
+        for (int i = 0; i < names.size(); i++) {
+            String expression = FIELDS.get(names.get(i));
+            if (expression == null) {
+                throw new IllegalArgumentException("Unknown field: " + names.get(i));
+            }
+            sql.append(", ").append(expression).append(" AS f").append(i);
+            joinPatients |= expression.contains("p.id");
+        }
+        sql.append(" FROM professionals pr ");
+        if (joinPatients) {
+            sql.append("LEFT JOIN patients p ON p.professional_responsible_id = pr.id GROUP BY pr.id ");
+        }
+        sql.append("ORDER BY pr.name, pr.id");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", rs.getLong("id"));
+            for (int i = 0; i < names.size(); i++) {
+                row.put(names.get(i), readField(rs, names.get(i), "f" + i));
+            }
+            return new ProjectedRow(rs.getLong("id"), rs.getString("sort_key"), row);
+        });
+    }
+
+    @Override
+    public List<LookupRow> findActiveLookup(String prefix, int limit) {
+        // Condição igual à do índice parcial idx_professionals_active_name_prefix;
+        // a barra invertida já é o escape padrão do LIKE no Postgres
+        String sql = "SELECT id, name FROM professionals " +
+                "WHERE active AND lower(name) LIKE :prefix ORDER BY name, id LIMIT :limit";
+        return jdbcTemplate.query(sql, Map.of("prefix", LookupRow.prefixPattern(prefix), "limit", limit),
+                (rs, rowNum) -> new LookupRow(rs.getLong("id"), rs.getString("name")));
+    }
+
+    private static Object readField(ResultSet rs, String name, String column) throws SQLException {
+        return switch (name) {
+            case "dataRegistro" -> readTimestamp(rs, column);
+            case "pacientesCount" -> rs.getInt(column);
+            case "pacientesIds" -> toLongList(rs.getArray(column));
+            default -> rs.getObject(column);
+        };
+    }
+
+    private static ProfessionalCaseloadRow toRow(ResultSet rs, boolean includePatientIds) throws SQLException {
+        return new ProfessionalCaseloadRow(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("cpf"),
+                rs.getString("phone"),
+                rs.getString("secondary_phone"),
+                rs.getString("email"),
+                rs.getObject("active", Boolean.class),
+                rs.getString("observations"),
+                readTimestamp(rs, "created_at"),
+                rs.getLong("patients_count"),
+                includePatientIds ? toLongList(rs.getArray("patient_ids")) : null,
+                readTimestamp(rs, "updated_at"));
+    }
+
+    private static LocalDateTime toUtc(LocalDateTime local) {
+        return local.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    private static LocalDateTime readTimestamp(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column, Calendar.getInstance(UTC));
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static List<Long> toLongList(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        try {
+            return Arrays.stream((Object[]) array.getArray())
+                    .map(value -> ((Number) value).longValue())
+                    .toList();
+        } finally {
+            array.free();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.util.Map;
+
+/**
+ * Linha de uma listagem com {@code fields=}: só as colunas pedidas, já com os nomes JSON da resposta.
+ * {@code id} e {@code sortKey} vêm sempre, para montar o cursor da próxima página.
+ */
+public record ProjectedRow(
+        Long id,
+        String sortKey,
+        Map<String, Object> fields) {
+}
@@ -0,0 +1,21 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.SyncReceipt;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncReceiptRepository extends JpaRepository<SyncReceipt, SyncReceipt.Key> {
+
+    List<SyncReceipt> findByUsernameAndIdempotencyKeyIn(String username, Collection<String> idempotencyKeys);
+
+    @Modifying
+    @Query("DELETE FROM SyncReceipt r WHERE r.appliedAt < :before")
+    int deleteAppliedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,9 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros opcionais da listagem de visitas; campos nulos são ignorados. O intervalo de datas é fechado.
+ */
+public record VisitFilter(Long patientId, Long professionalId, LocalDate from, LocalDate to) {
+}
@@ -0,0 +1,23 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.VisitType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Projeção de visita com os nomes do paciente e do profissional, lida numa única query.
+ */
+public record VisitListRow(
+        Long id,
+        Long patientId,
+        String patientName,
+        Long professionalId,
+        String professionalName,
+        LocalDate visitDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        VisitType visitType,
+        String observations,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,18 @@
+package dev.huggo.vntl_backend.repository;
+
+import dev.huggo.vntl_backend.domain.Visit;
+import java.time.LocalDate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VisitRepository extends JpaRepository<Visit, Long>, VisitRepositoryCustom {
+
+    @Query("SELECT MAX(v.visitDate) FROM Visit v WHERE v.patientId = :patientId AND v.visitDate <= :today")
+    LocalDate findLastVisitDate(@Param("patientId") Long patientId, @Param("today") LocalDate today);
+
+    @Query("SELECT MIN(v.visitDate) FROM Visit v WHERE v.patientId = :patientId AND v.visitDate > :today")
+    LocalDate findNextVisitDate(@Param("patientId") Long patientId, @Param("today") LocalDate today);
+}
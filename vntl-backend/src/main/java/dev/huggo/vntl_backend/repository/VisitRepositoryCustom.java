@@ -0,0 +1,20 @@
+package dev.huggo.vntl_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface VisitRepositoryCustom {
+
+    /**
+     * Página de visitas da mais recente para a mais antiga, ordenada por (data, id), começando após {@code after}.
+     */
+    List<VisitListRow> findPage(VisitFilter filter, KeysetCursor after, int limit);
+
+    Optional<VisitListRow> findRowById(Long id);
+
+    /**
+     * Visitas alteradas a partir de {@code since}, em ordem de alteração; opcionalmente só de um profissional.
+     */
+    List<VisitListRow> findChangedSince(LocalDateTime since, Long professionalId, int limit);
+}
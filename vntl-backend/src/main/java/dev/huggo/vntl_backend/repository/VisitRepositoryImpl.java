@@ -0,0 +1,92 @@
+package dev.huggo.vntl_backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class VisitRepositoryImpl implements VisitRepositoryCustom {
+
+    private static final String LIST_ROW_SELECT = "SELECT new dev.huggo.vntl_backend.repository.VisitListRow(" +
+            "v.id, v.patientId, p.name, v.professionalId, pr.name, v.visitDate, v.startTime, v.endTime, " +
+            "v.visitType, v.observations, v.updatedAt) " +
+            "FROM Visit v " +
+            "JOIN Patient p ON p.id = v.patientId " +
+            "LEFT JOIN Professional pr ON pr.id = v.professionalId ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<VisitListRow> findPage(VisitFilter filter, KeysetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(LIST_ROW_SELECT).append("WHERE 1 = 1 ");
+        Map<String, Object> params = new HashMap<>();
+
+        // Cada combinação de filtro usa um dos índices (coluna, visit_date, id) da V9
+        if (filter != null && filter.patientId() != null) {
+            jpql.append("AND v.patientId = :patientId ");
+            params.put("patientId", filter.patientId());
+        }
+        if (filter != null && filter.professionalId() != null) {
+            jpql.append("AND v.professionalId = :professionalId ");
+            params.put("professionalId", filter.professionalId());
+        }
+        if (filter != null && filter.from() != null) {
+            jpql.append("AND v.visitDate >= :from ");
+            params.put("from", filter.from());
+        }
+        if (filter != null && filter.to() != null) {
+            jpql.append("AND v.visitDate <= :to ");
+            params.put("to", filter.to());
+        }
+        if (after != null) {
+            jpql.append("AND (v.visitDate < :afterDate OR (v.visitDate = :afterDate AND v.id < :afterId)) ");
+            params.put("afterDate", parseDate(after.key()));
+            params.put("afterId", after.id());
+        }
+        jpql.append("ORDER BY v.visitDate DESC, v.id DESC");
+
+        TypedQuery<VisitListRow> query = entityManager.createQuery(jpql.toString(), VisitListRow.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Optional<VisitListRow> findRowById(Long id) {
+        return entityManager.createQuery(LIST_ROW_SELECT + "WHERE v.id = :id", VisitListRow.class)
+                .setParameter("id", id)
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<VisitListRow> findChangedSince(LocalDateTime since, Long professionalId, int limit) {
+        StringBuilder jpql = new StringBuilder(LIST_ROW_SELECT).append("WHERE v.updatedAt >= :since ");
+        if (professionalId != null) {
+            jpql.append("AND v.professionalId = :professionalId ");
+        }
+        jpql.append("ORDER BY v.updatedAt, v.id");
+
+        TypedQuery<VisitListRow> query = entityManager.createQuery(jpql.toString(), VisitListRow.class)
+                .setParameter("since", since);
+        if (professionalId != null) {
+            query.setParameter("professionalId", professionalId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static LocalDate parseDate(String key) {
+        try {
+            return LocalDate.parse(key);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
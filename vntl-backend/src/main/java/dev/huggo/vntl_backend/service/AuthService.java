@@ -0,0 +1,11 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.config.TokenClaims;
+import dev.huggo.vntl_backend.domain.User;
+import dev.huggo.vntl_backend.service.dto.LoginResponse;
+
+public interface AuthService {
+    LoginResponse issueTokens(User user);
+    LoginResponse refresh(String refreshToken);
+    void logout(String refreshToken, TokenClaims accessToken);
+}
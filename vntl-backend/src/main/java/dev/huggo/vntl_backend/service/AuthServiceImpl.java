@@ -0,0 +1,133 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.config.JwtService;
+import dev.huggo.vntl_backend.config.RevokedTokenRegistry;
+import dev.huggo.vntl_backend.config.TokenClaims;
+import dev.huggo.vntl_backend.domain.RefreshToken;
+import dev.huggo.vntl_backend.domain.User;
+import dev.huggo.vntl_backend.repository.RefreshTokenRepository;
+import dev.huggo.vntl_backend.repository.UserRepository;
+import dev.huggo.vntl_backend.service.dto.LoginResponse;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthServiceImpl implements AuthService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JwtService jwtService;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    @Value("${security.jwt.refresh-expiration:P14D}")
+    private Duration refreshExpiration;
+
+    @Override
+    @Transactional
+    public LoginResponse issueTokens(User user) {
+        return issueTokens(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Troca um refresh token válido por um novo par de tokens (rotação).
+     *
+     * O token apresentado é revogado. Se um token já revogado for reapresentado,
+     * assume-se que ele vazou e toda a família daquele login é revogada.
+     *
+     * A revogação é um UPDATE condicional: entre duas requisições concorrentes com o
+     * mesmo token só uma o revoga, e a outra é tratada como reuso.
+     */
+    @Override
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public LoginResponse refresh(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        RefreshToken current = findToken(refreshToken);
+
+        if (current.getRevokedAt() != null) {
+            throw reuseDetected(current, now);
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        User user = userRepository.findById(current.getUserId())
+                .filter(User::isEnabled)
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        if (refreshTokenRepository.revokeIfActive(current.getId(), now) == 0) {
+            throw reuseDetected(current, now);
+        }
+        return issueTokens(user, current.getFamilyId());
+    }
+
+    @Override
+    @Transactional
+    public void logout(String refreshToken, TokenClaims accessToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findByTokenHash(JwtService.digest(refreshToken))
+                    .ifPresent(token -> refreshTokenRepository.revokeFamily(
+                            token.getFamilyId(), LocalDateTime.now(ZoneOffset.UTC)));
+        }
+        if (accessToken != null) {
+            revokedTokenRegistry.revoke(accessToken.tokenId(), accessToken.expiresAt());
+        }
+    }
+
+    @Scheduled(cron = "${security.jwt.revocation.cleanup-cron:0 0 * * * *}")
+    @Transactional
+    public void deleteExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now(ZoneOffset.UTC));
+        if (deleted > 0) {
+            log.info("Removed {} expired refresh tokens", deleted);
+        }
+    }
+
+    private LoginResponse issueTokens(User user, String familyId) {
+        String refreshToken = newRefreshToken();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(JwtService.digest(refreshToken))
+                .familyId(familyId)
+                .userId(user.getId())
+                .expiresAt(LocalDateTime.now(ZoneOffset.UTC).plus(refreshExpiration))
+                .build());
+
+        String accessToken = jwtService.generateToken(user);
+        return new LoginResponse(accessToken, refreshToken, user.getUsername(), user.getName(), user.getRole());
+    }
+
+    private BadCredentialsException reuseDetected(RefreshToken token, LocalDateTime now) {
+        refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+        log.warn("Reuse of revoked refresh token detected userId={} family={}",
+                token.getUserId(), token.getFamilyId());
+        return new BadCredentialsException("Invalid refresh token");
+    }
+
+    private RefreshToken findToken(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return refreshTokenRepository.findByTokenHash(JwtService.digest(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+    }
+
+    private static String newRefreshToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
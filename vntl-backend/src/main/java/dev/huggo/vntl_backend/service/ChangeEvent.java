@@ -0,0 +1,17 @@
+package dev.huggo.vntl_backend.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+
+/**
+ * Aviso enviado por SSE de que um registro mudou. É só uma dica: o cliente busca os dados
+ * pelo feed de alterações ({@code /changes}) ou recarregando a consulta.
+ *
+ * @param id      {@code null} quando várias linhas mudaram de uma vez
+ * @param deleted se o registro foi excluído
+ */
+public record ChangeEvent(
+        @JsonProperty("tipo") ChangeEntityType type,
+        @JsonProperty("id") Long id,
+        @JsonProperty("removido") boolean deleted) {
+}
@@ -0,0 +1,282 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Envia por SSE os avisos de alteração de pacientes, aparelhos e profissionais aos dashboards abertos.
+ *
+ * Conexões ociosas não ocupam thread: o {@link SseEmitter} mantém a requisição em modo assíncrono e
+ * só um pequeno pool ({@code sse.sender-threads}) escreve nas conexões, uma de cada vez por conexão.
+ * Cada conexão tem uma fila limitada; se o cliente não acompanhar, a fila é descartada e ele recebe
+ * um único evento {@code recarregar}. Os avisos de uma transação são agrupados e só saem após o commit.
+ * Antes dos clientes, os mesmos avisos vão aos ouvintes locais ({@link #addListener}), como os caches.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeEventBroadcaster {
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RELOAD = new Object();
+
+    // Acima disso os avisos de um tipo na mesma transação viram um só, sem id
+    private static final int MAX_IDS_PER_TRANSACTION = 100;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sse.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${sse.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${sse.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${sse.sender-threads:2}")
+    private int senderThreads;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, AtomicInteger> connectionsPerUser = new ConcurrentHashMap<>();
+    private final List<Consumer<ChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private ExecutorService sender;
+    private Counter sent;
+    private Counter overflowed;
+
+    @PostConstruct
+    void init() {
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("sse.connections", subscribers, Set::size).register(meterRegistry);
+        sent = Counter.builder("sse.events.sent").register(meterRegistry);
+        overflowed = Counter.builder("sse.events.overflowed").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    /**
+     * Abre um stream para o usuário; 503 se o limite global for atingido e 429 se o do usuário for.
+     */
+    public SseEmitter subscribe(String username) {
+        if (subscribers.size() >= maxConnections) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event stream connections");
+        }
+        AtomicInteger userConnections = connectionsPerUser.computeIfAbsent(username, key -> new AtomicInteger());
+        if (userConnections.incrementAndGet() > maxConnectionsPerUser) {
+            userConnections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many event streams for user");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(username, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Primeiro envio confirma a conexão ao navegador
+        subscriber.offer(HEARTBEAT);
+        return emitter;
+    }
+
+    /**
+     * Registra um ouvinte das alterações confirmadas nesta instância. Roda na thread que fez o commit,
+     * então deve ser rápido; exceções são registradas e não afetam os demais.
+     */
+    public void addListener(Consumer<ChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Publica o aviso após o commit da transação atual (imediatamente se não houver transação).
+     */
+    public void publish(ChangeEntityType type, Long id, boolean deleted) {
+        ChangeEvent event = new ChangeEvent(type, id, deleted);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(event);
+            return;
+        }
+        Set<ChangeEvent> pending = TransactionEffects.buffer(this, LinkedHashSet::new, events ->
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        coalesce(events).forEach(ChangeEventBroadcaster.this::dispatch);
+                    }
+                });
+        pending.add(event);
+    }
+
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        // Mantém proxies e balanceadores com a conexão aberta e detecta clientes que já saíram
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    private Set<ChangeEvent> coalesce(Set<ChangeEvent> events) {
+        Set<ChangeEntityType> bulk = EnumSet.noneOf(ChangeEntityType.class);
+        for (ChangeEntityType type : ChangeEntityType.values()) {
+            long count = events.stream().filter(e -> e.type() == type).count();
+            if (count > MAX_IDS_PER_TRANSACTION || events.contains(new ChangeEvent(type, null, false))) {
+                bulk.add(type);
+            }
+        }
+        if (bulk.isEmpty()) {
+            return events;
+        }
+        Set<ChangeEvent> result = new LinkedHashSet<>();
+        for (ChangeEvent event : events) {
+            result.add(bulk.contains(event.type()) ? new ChangeEvent(event.type(), null, false) : event);
+        }
+        return result;
+    }
+
+    /**
+     * Entrega aos ouvintes e às conexões SSE desta instância um aviso já confirmado em outra
+     * ({@link InvalidationBus}).
+     */
+    public void deliver(ChangeEvent event) {
+        dispatch(event);
+    }
+
+    private void dispatch(ChangeEvent event) {
+        for (Consumer<ChangeEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Change listener failed for {}", event, e);
+            }
+        }
+        broadcast(event);
+    }
+
+    private void broadcast(ChangeEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            connectionsPerUser.computeIfPresent(subscriber.username,
+                    (user, count) -> count.decrementAndGet() <= 0 ? null : count);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final String username;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean reload = new AtomicBoolean();
+
+        Subscriber(String username, SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.username = username;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(Object message) {
+            if (!queue.offer(message)) {
+                // Cliente lento: os avisos pendentes viram um único "recarregar"
+                queue.clear();
+                reload.set(true);
+                overflowed.increment();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                if (reload.getAndSet(false)) {
+                    send(RELOAD);
+                }
+                Object message;
+                while ((message = queue.poll()) != null) {
+                    send(message);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Conexão fechada pelo cliente ou já concluída
+                log.debug("Closing event stream of {}: {}", username, e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // Algo pode ter chegado entre o último poll e a liberação
+            if (!queue.isEmpty() || reload.get()) {
+                schedule();
+            }
+        }
+
+        private void send(Object message) throws IOException {
+            if (message == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } else if (message == RELOAD) {
+                emitter.send(SseEmitter.event().name("recarregar").data("{}"));
+            } else {
+                ChangeEvent event = (ChangeEvent) message;
+                emitter.send(SseEmitter.event().name("alteracao").data(objectMapper.writeValueAsString(event)));
+                sent.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.config.ReadRouting;
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.DeletedRecord;
+import dev.huggo.vntl_backend.repository.DeletedRecordRepository;
+import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.ProfessionalRepository;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Feeds de alterações ({@code GET .../changes?since=}) de pacientes, aparelhos e profissionais.
+ *
+ * Linhas alteradas vêm de {@code updated_at} (índices {@code (updated_at, id)}); exclusões vêm das
+ * lápides em {@code deleted_records}. A marca devolvida é o instante do servidor no início da consulta
+ * e a próxima consulta relê uma pequena margem antes dela, para não perder transações que confirmaram
+ * depois de a marca ser emitida. O cliente recebe de novo algumas linhas, sem prejuízo.
+ * As consultas vão ao primário ({@link ReadRouting}): numa réplica atrasada, as alterações feitas
+ * antes da marca que ela ainda não aplicou ficariam de fora e não voltariam na próxima consulta.
+ *
+ * Os serviços também avisam aqui quando uma escrita muda dados exibidos em outro recurso
+ * (nome do profissional no paciente, carteira do profissional etc.), marcando essas linhas como alteradas.
+ * Toda notificação também sai como evento SSE após o commit ({@link ChangeEventBroadcaster}) e
+ * incrementa a versão da coleção usada nos ETags ({@link ResourceVersions}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeTracker {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final PatientRepository patientRepository;
+    private final DeviceRepository deviceRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final ChangeEventBroadcaster broadcaster;
+    private final ResourceVersions resourceVersions;
+    private final InvalidationBus invalidationBus;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${changes.overlap:PT5S}")
+    private Duration overlap;
+
+    // Marcas mais antigas que isso recebem "recarregar": as lápides já foram apagadas
+    @Value("${changes.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    /* =========================
+       Write notifications
+       ========================= */
+
+    /**
+     * Registro criado ou alterado pelo próprio serviço ({@code updated_at} já é mantido pelo JPA).
+     *
+     * @param id {@code null} quando várias linhas mudaram de uma vez
+     */
+    public void changed(ChangeEntityType type, Long id) {
+        publish(type, id, false);
+    }
+
+    public void deleted(ChangeEntityType type, Long id) {
+        deletedRecordRepository.save(DeletedRecord.builder()
+                .entityType(type)
+                .entityId(id)
+                .build());
+        publish(type, id, true);
+    }
+
+    /**
+     * A carteira (ids e quantidade de pacientes) dos profissionais mudou.
+     */
+    public void caseloadChanged(Long... professionalIds) {
+        List<Long> ids = Arrays.stream(professionalIds).filter(Objects::nonNull).distinct().toList();
+        if (!ids.isEmpty()) {
+            professionalRepository.touch(ids, LocalDateTime.now());
+            ids.forEach(id -> publish(ChangeEntityType.PROFISSIONAL, id, false));
+        }
+    }
+
+    /**
+     * O nome do profissional, exibido nos pacientes da carteira, mudou.
+     */
+    public void professionalRenamed(Long professionalId) {
+        if (patientRepository.touchByProfessional(professionalId, LocalDateTime.now()) > 0) {
+            publish(ChangeEntityType.PACIENTE, null, false);
+        }
+    }
+
+    /**
+     * Tipo ou patrimônio do aparelho, exibidos no paciente vinculado, mudaram.
+     */
+    public void deviceRelabeled(Long deviceId) {
+        if (patientRepository.touchByDevice(deviceId, LocalDateTime.now()) > 0) {
+            publish(ChangeEntityType.PACIENTE, null, false);
+        }
+    }
+
+    /**
+     * O nome do paciente, exibido no aparelho vinculado, mudou.
+     */
+    public void patientRenamed(Long deviceId) {
+        if (deviceId != null) {
+            deviceRepository.touch(deviceId, LocalDateTime.now());
+            publish(ChangeEntityType.APARELHO, deviceId, false);
+        }
+    }
+
+    /**
+     * Chamado após o commit de cada alteração do tipo, feita nesta instância ou recebida de outra
+     * ({@link InvalidationBus}), com o id ({@code null} quando várias linhas mudaram).
+     * Usado para invalidar caches locais.
+     */
+    public void onCommitted(ChangeEntityType type, Consumer<Long> listener) {
+        broadcaster.addListener(event -> {
+            if (event.type() == type) {
+                listener.accept(event.id());
+            }
+        });
+    }
+
+    private void publish(ChangeEntityType type, Long id, boolean deleted) {
+        broadcaster.publish(type, id, deleted);
+        resourceVersions.changed(type, id);
+        // Por último: as outras instâncias só são avisadas depois do incremento da versão da coleção
+        invalidationBus.changed(type, id, deleted);
+    }
+
+    /* =========================
+       Feeds
+       ========================= */
+
+    /**
+     * @param changedSince consulta das linhas com {@code updated_at >= since}, em ordem de alteração
+     * @param updatedAt    {@code updated_at} da linha
+     */
+    public <R, T> ChangeFeed<T> feed(ChangeEntityType type, Instant since, int limit,
+                                     BiFunction<LocalDateTime, Integer, List<R>> changedSince,
+                                     Function<R, LocalDateTime> updatedAt,
+                                     Function<R, T> mapper) {
+        Instant now = Instant.now();
+        if (since == null || since.isBefore(now.minus(tombstoneRetention))) {
+            return ChangeFeed.<T>builder()
+                    .changed(List.of())
+                    .deleted(List.of())
+                    .watermark(now)
+                    .reload(true)
+                    .build();
+        }
+
+        // onPrimary por fora: só vale para transações abertas dentro dele
+        return ReadRouting.onPrimary(() -> readTransaction.execute(status ->
+                read(type, since, now, limit, changedSince, updatedAt, mapper)));
+    }
+
+    private <R, T> ChangeFeed<T> read(ChangeEntityType type, Instant since, Instant now, int limit,
+                                      BiFunction<LocalDateTime, Integer, List<R>> changedSince,
+                                      Function<R, LocalDateTime> updatedAt,
+                                      Function<R, T> mapper) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        LocalDateTime from = LocalDateTime.ofInstant(since.minus(overlap), ZoneId.systemDefault());
+
+        // Busca um registro a mais só para saber se o limite foi atingido
+        List<R> rows = changedSince.apply(from, pageSize + 1);
+        List<DeletedRecord> tombstones = deletedRecordRepository.findDeletedSince(type, from, Limit.of(pageSize + 1));
+
+        // Com o limite atingido, a próxima consulta recomeça na última linha enviada (somando a margem
+        // que será descontada, senão mais de "limit" alterações dentro da margem nunca avançariam)
+        Instant watermark = now;
+        boolean truncated = false;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            watermark = resumeAt(updatedAt.apply(rows.get(pageSize - 1)), null);
+            truncated = true;
+        }
+        if (tombstones.size() > pageSize) {
+            tombstones = tombstones.subList(0, pageSize);
+            watermark = resumeAt(tombstones.get(pageSize - 1).getDeletedAt(), truncated ? watermark : null);
+            truncated = true;
+        }
+
+        return ChangeFeed.<T>builder()
+                .changed(rows.stream().map(mapper).toList())
+                .deleted(tombstones.stream().map(DeletedRecord::getEntityId).toList())
+                .watermark(watermark)
+                .truncated(truncated)
+                .build();
+    }
+
+    /**
+     * Marca para continuar depois de {@code last}; com as duas listas cortadas vale a menor.
+     */
+    private Instant resumeAt(LocalDateTime last, Instant other) {
+        Instant resume = last.atZone(ZoneId.systemDefault()).toInstant().plus(overlap);
+        return other != null && other.isBefore(resume) ? other : resume;
+    }
+
+    @Scheduled(cron = "${changes.tombstone-cleanup-cron:0 45 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int deleted = deletedRecordRepository.deleteDeletedBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (deleted > 0) {
+            log.info("Removed {} expired change feed tombstones", deleted);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package dev.huggo.vntl_backend.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Leitor de CSV (RFC 4180) registro a registro, sem carregar o arquivo em memória.
+ *
+ * Aceita vírgula ou ponto e vírgula (padrão do Excel em pt-BR); o separador é detectado
+ * no cabeçalho. Campos entre aspas podem conter separadores, aspas duplicadas e quebras de linha.
+ */
+public class CsvReader implements Closeable {
+
+    private static final DateTimeFormatter BRAZILIAN_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final BufferedReader reader;
+    private char delimiter = ',';
+    private List<String> header;
+    private Map<String, Integer> columns;
+    private long recordNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * Lê o cabeçalho e detecta o separador. Nomes de coluna são comparados sem diferenciar maiúsculas.
+     *
+     * @return {@code false} se o arquivo estiver vazio
+     */
+    public boolean readHeader() throws IOException {
+        reader.mark(8192);
+        String firstLine = reader.readLine();
+        if (firstLine == null) {
+            return false;
+        }
+        reader.reset();
+        if (firstLine.indexOf(';') >= 0 && firstLine.indexOf(',') < 0) {
+            delimiter = ';';
+        }
+
+        header = readRecord();
+        if (header.get(0).startsWith("\uFEFF")) {
+            // BOM que o Excel grava em "CSV UTF-8"
+            header.set(0, header.get(0).substring(1));
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return true;
+    }
+
+    /**
+     * @return campos do próximo registro, ou {@code null} no fim do arquivo
+     */
+    public List<String> readRecord() throws IOException {
+        int c = reader.read();
+        // Ignora linhas em branco entre registros
+        while (c == '\r' || c == '\n') {
+            c = reader.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in record " + (recordNumber + 1));
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                fields.add(field.toString());
+                recordNumber++;
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * Valor da coluna no registro; vazio vira {@code null}.
+     */
+    public String get(List<String> record, String column) {
+        Integer index = columns != null ? columns.get(column.toLowerCase(Locale.ROOT)) : null;
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Data em ISO ({@code 2024-01-31}) ou no formato brasileiro ({@code 31/01/2024}).
+     */
+    public static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.contains("/") ? LocalDate.parse(value, BRAZILIAN_DATE) : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    public List<String> header() {
+        return header;
+    }
+
+    /**
+     * Número do último registro lido, contando o cabeçalho como registro 1.
+     */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
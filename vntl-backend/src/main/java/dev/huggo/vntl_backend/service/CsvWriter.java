@@ -0,0 +1,33 @@
+package dev.huggo.vntl_backend.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Escrita de linhas CSV (RFC 4180): campos com separador, aspas ou quebra de linha vão entre aspas.
+ */
+public final class CsvWriter {
+
+    private CsvWriter() {
+    }
+
+    public static void writeLine(Writer writer, List<?> values) throws IOException {
+        writer.write(values.stream()
+                .map(CsvWriter::field)
+                .collect(Collectors.joining(",")));
+        writer.write("\r\n");
+    }
+
+    private static String field(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
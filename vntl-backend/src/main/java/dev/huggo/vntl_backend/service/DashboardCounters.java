@@ -0,0 +1,268 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.config.ReadRouting;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.ProfessionalRepository;
+import dev.huggo.vntl_backend.service.dto.DashboardSummaryResponse;
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Contadores em memória que alimentam o resumo do dashboard sem consultar o banco.
+ *
+ * Os serviços informam cada escrita (estado anterior e novo) e o ajuste só é aplicado
+ * após o commit. Uma reconciliação periódica com consultas GROUP BY substitui os valores
+ * e corrige qualquer divergência (escritas fora dos serviços, falhas entre commit e ajuste).
+ * As consultas da reconciliação vão ao primário ({@link ReadRouting}): numa réplica atrasada, os
+ * valores consultados ficariam atrás dos ajustes já aplicados em memória.
+ *
+ * Ajustes aplicados enquanto a reconciliação consulta o banco são anotados e reaplicados
+ * sobre os valores consultados, para não se perderem. Resta uma janela curta: uma escrita
+ * com commit logo antes das consultas e ajuste logo depois é contada duas vezes até a
+ * próxima reconciliação.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCounters {
+
+    private final DeviceRepository deviceRepository;
+    private final PatientRepository patientRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${dashboard.upcoming-visits-days:7}")
+    private int upcomingVisitsDays;
+
+    private final Map<DeviceStatus, AtomicLong> devicesByStatus = new EnumMap<>(DeviceStatus.class);
+    private final Map<PatientStatus, AtomicLong> patientsByStatus = new EnumMap<>(PatientStatus.class);
+    private final AtomicLong professionalsTotal = new AtomicLong();
+    private final AtomicLong professionalsActive = new AtomicLong();
+    private final ConcurrentMap<LocalDate, AtomicLong> patientsByNextVisit = new ConcurrentHashMap<>();
+
+    // Ajustes aplicados durante a reconciliação em andamento; null fora dela
+    private final Object reconcileLock = new Object();
+    private List<Runnable> appliedDuringReconcile;
+
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        // Os mapas por enum são preenchidos uma única vez e depois só lidos, por isso EnumMap basta
+        for (DeviceStatus status : DeviceStatus.values()) {
+            devicesByStatus.put(status, new AtomicLong());
+        }
+        for (PatientStatus status : PatientStatus.values()) {
+            patientsByStatus.put(status, new AtomicLong());
+        }
+        reconcile();
+    }
+
+    /* =========================
+       Write notifications
+       ========================= */
+
+    /**
+     * @param before status anterior ({@code null} na criação)
+     * @param after  status novo ({@code null} na exclusão)
+     */
+    public void deviceChanged(DeviceStatus before, DeviceStatus after) {
+        if (before == after) {
+            return;
+        }
+        afterCommit(() -> {
+            if (before != null) {
+                devicesByStatus.get(before).decrementAndGet();
+            }
+            if (after != null) {
+                devicesByStatus.get(after).incrementAndGet();
+            }
+        });
+    }
+
+    public void patientChanged(PatientStatus statusBefore, PatientStatus statusAfter,
+                               LocalDate nextVisitBefore, LocalDate nextVisitAfter) {
+        if (statusBefore == statusAfter && Objects.equals(nextVisitBefore, nextVisitAfter)) {
+            return;
+        }
+        afterCommit(() -> {
+            if (statusBefore != statusAfter) {
+                if (statusBefore != null) {
+                    patientsByStatus.get(statusBefore).decrementAndGet();
+                }
+                if (statusAfter != null) {
+                    patientsByStatus.get(statusAfter).incrementAndGet();
+                }
+            }
+            if (!Objects.equals(nextVisitBefore, nextVisitAfter)) {
+                if (nextVisitBefore != null) {
+                    patientsByNextVisit.computeIfAbsent(nextVisitBefore, d -> new AtomicLong()).decrementAndGet();
+                }
+                if (nextVisitAfter != null) {
+                    patientsByNextVisit.computeIfAbsent(nextVisitAfter, d -> new AtomicLong()).incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * @param activeBefore {@code null} na criação
+     * @param activeAfter  {@code null} na exclusão
+     */
+    public void professionalChanged(Boolean activeBefore, Boolean activeAfter) {
+        if (Objects.equals(activeBefore, activeAfter)) {
+            return;
+        }
+        afterCommit(() -> {
+            if (activeBefore == null) {
+                professionalsTotal.incrementAndGet();
+            }
+            if (activeAfter == null) {
+                professionalsTotal.decrementAndGet();
+            }
+            if (Boolean.TRUE.equals(activeBefore)) {
+                professionalsActive.decrementAndGet();
+            }
+            if (Boolean.TRUE.equals(activeAfter)) {
+                professionalsActive.incrementAndGet();
+            }
+        });
+    }
+
+    /* =========================
+       Summary
+       ========================= */
+
+    public DashboardSummaryResponse summary() {
+        LocalDate today = LocalDate.now();
+        long upcomingVisits = 0;
+        for (int day = 0; day <= upcomingVisitsDays; day++) {
+            AtomicLong count = patientsByNextVisit.get(today.plusDays(day));
+            if (count != null) {
+                upcomingVisits += count.get();
+            }
+        }
+
+        return DashboardSummaryResponse.builder()
+                .devices(snapshot(devicesByStatus))
+                .patients(snapshot(patientsByStatus))
+                .professionalsTotal(professionalsTotal.get())
+                .professionalsActive(professionalsActive.get())
+                .upcomingVisits(upcomingVisits)
+                .upcomingVisitsDays(upcomingVisitsDays)
+                .build();
+    }
+
+    /* =========================
+       Reconciliation
+       ========================= */
+
+    @Scheduled(
+            fixedDelayString = "${dashboard.reconcile-interval:PT5M}",
+            initialDelayString = "${dashboard.reconcile-interval:PT5M}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            appliedDuringReconcile = new ArrayList<>();
+        }
+        try {
+            // onPrimary por fora: só vale para transações abertas dentro dele
+            ReadRouting.onPrimary(() -> readTransaction.execute(status -> {
+                reconcileFromDatabase();
+                return null;
+            }));
+        } finally {
+            synchronized (reconcileLock) {
+                appliedDuringReconcile = null;
+            }
+        }
+
+        log.debug("Reconciled dashboard counters");
+    }
+
+    private void reconcileFromDatabase() {
+        Map<DeviceStatus, Long> devices = new EnumMap<>(DeviceStatus.class);
+        deviceRepository.countGroupedByStatus()
+                .forEach(row -> devices.put((DeviceStatus) row[0], ((Number) row[1]).longValue()));
+
+        Map<PatientStatus, Long> patients = new EnumMap<>(PatientStatus.class);
+        patientRepository.countGroupedByStatus()
+                .forEach(row -> patients.put((PatientStatus) row[0], ((Number) row[1]).longValue()));
+
+        Map<LocalDate, Long> nextVisits = new LinkedHashMap<>();
+        patientRepository.countGroupedByNextVisitDateFrom(LocalDate.now())
+                .forEach(row -> nextVisits.put((LocalDate) row[0], ((Number) row[1]).longValue()));
+
+        long total = 0;
+        long active = 0;
+        for (Object[] row : professionalRepository.countGroupedByActive()) {
+            long count = ((Number) row[1]).longValue();
+            total += count;
+            if (Boolean.TRUE.equals(row[0])) {
+                active += count;
+            }
+        }
+
+        synchronized (reconcileLock) {
+            devicesByStatus.forEach((status, counter) -> counter.set(devices.getOrDefault(status, 0L)));
+            patientsByStatus.forEach((status, counter) -> counter.set(patients.getOrDefault(status, 0L)));
+            patientsByNextVisit.keySet().removeIf(date -> !nextVisits.containsKey(date));
+            nextVisits.forEach((date, count) ->
+                    patientsByNextVisit.computeIfAbsent(date, d -> new AtomicLong()).set(count));
+            professionalsTotal.set(total);
+            professionalsActive.set(active);
+            // Commits que as consultas podem não ter visto
+            appliedDuringReconcile.forEach(Runnable::run);
+        }
+    }
+
+    private static <E extends Enum<E>> Map<String, Long> snapshot(Map<E, AtomicLong> counters) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counters.forEach((key, value) -> result.put(key.name(), value.get()));
+        return result;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(action);
+            }
+        });
+    }
+
+    private void apply(Runnable delta) {
+        synchronized (reconcileLock) {
+            delta.run();
+            if (appliedDuringReconcile != null) {
+                appliedDuringReconcile.add(delta);
+            }
+        }
+    }
+}
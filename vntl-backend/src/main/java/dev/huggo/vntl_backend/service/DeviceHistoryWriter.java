@@ -0,0 +1,176 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Livro de movimentações de aparelhos ({@code device_history}), com outbox transacional.
+ *
+ * Os serviços chamam {@link #record} dentro da própria transação. As movimentações da transação
+ * são gravadas em {@code device_history_outbox} num único lote JDBC logo antes do commit: entram
+ * ou somem junto com a alteração do aparelho, e sobrevivem a uma queda ou reinício. A outbox não tem
+ * chaves estrangeiras nem índices secundários, então a requisição não paga pelos do livro.
+ *
+ * Um agendador move a outbox para {@code device_history} em lotes, um comando por lote. Movimentações
+ * de aparelhos já excluídos são descartadas; paciente excluído vira {@code patient_id} nulo, como na
+ * chave estrangeira do livro.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceHistoryWriter {
+
+    private static final String INSERT_OUTBOX = "INSERT INTO device_history_outbox " +
+            "(device_id, patient_id, previous_status, new_status, movement_date, observations, username) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Apaga um lote da outbox e o grava no livro no mesmo comando; SKIP LOCKED deixa outra
+    // instância mover o lote seguinte em paralelo
+    private static final String MOVE = """
+            WITH batch AS (
+                DELETE FROM device_history_outbox
+                WHERE id IN (SELECT id FROM device_history_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+                RETURNING *
+            ), moved AS (
+                INSERT INTO device_history
+                    (device_id, patient_id, previous_status, new_status, movement_date, observations, user_id)
+                SELECT b.device_id, p.id, b.previous_status, b.new_status, b.movement_date, b.observations, u.id
+                FROM batch b
+                JOIN devices d ON d.id = b.device_id
+                LEFT JOIN patients p ON p.id = b.patient_id
+                LEFT JOIN users u ON u.username = b.username
+                ORDER BY b.id
+                RETURNING 1
+            )
+            SELECT (SELECT COUNT(*) FROM batch), (SELECT COUNT(*) FROM moved)""";
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${device-history.batch-size:500}")
+    private int batchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Counter written;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        written = Counter.builder("device.history.written").register(meterRegistry);
+        dropped = Counter.builder("device.history.dropped").register(meterRegistry);
+    }
+
+    /**
+     * Registra uma movimentação na outbox antes do commit da transação atual; um rollback a descarta.
+     * Fora de transação é gravada na hora.
+     *
+     * @param previousStatus {@code null} quando o aparelho acabou de ser cadastrado
+     */
+    public void record(Long deviceId, Long patientId, DeviceStatus previousStatus, DeviceStatus newStatus,
+                       String observations) {
+        DeviceMovement movement = new DeviceMovement(deviceId, patientId, previousStatus, newStatus,
+                LocalDateTime.now(), observations, currentUsername());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeOutbox(List.of(movement));
+            return;
+        }
+
+        List<DeviceMovement> pending = TransactionEffects.buffer(this, ArrayList::new, movements ->
+                new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        writeOutbox(movements);
+                    }
+                });
+        pending.add(movement);
+    }
+
+    @Scheduled(fixedDelayString = "${device-history.flush-interval:PT1S}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            int taken;
+            do {
+                taken = moveBatch();
+            } while (taken == batchSize);
+        } catch (DataAccessException e) {
+            // O lote continua na outbox (aparelho ou paciente excluído no meio do comando, banco fora)
+            log.error("Could not move device history from the outbox; retrying on the next run", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return linhas retiradas da outbox
+     */
+    private int moveBatch() {
+        int[] counts = jdbcTemplate.queryForObject(MOVE,
+                (rs, rowNum) -> new int[] {rs.getInt(1), rs.getInt(2)}, batchSize);
+        int taken = counts[0];
+        int moved = counts[1];
+        written.increment(moved);
+        if (moved < taken) {
+            dropped.increment(taken - moved);
+            log.warn("Dropped {} device history entries of deleted devices", taken - moved);
+        }
+        return taken;
+    }
+
+    private void writeOutbox(List<DeviceMovement> movements) {
+        if (!movements.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OUTBOX, movements, batchSize, DeviceHistoryWriter::bind);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, DeviceMovement movement) throws SQLException {
+        ps.setLong(1, movement.deviceId());
+        if (movement.patientId() != null) {
+            ps.setLong(2, movement.patientId());
+        } else {
+            ps.setNull(2, Types.BIGINT);
+        }
+        ps.setString(3, movement.previousStatus() != null ? movement.previousStatus().name() : null);
+        ps.setString(4, movement.newStatus().name());
+        // Mesmo fuso que o Hibernate usa (hibernate.jdbc.time_zone=UTC) para ler a coluna de volta
+        ps.setTimestamp(5, Timestamp.valueOf(movement.movementDate()), Calendar.getInstance(UTC));
+        ps.setString(6, movement.observations());
+        ps.setString(7, movement.username());
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,10 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.service.dto.ImportResponse;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface DeviceImportService {
+    ImportResponse importCsv(InputStream in) throws IOException;
+    ImportResponse importJson(InputStream in) throws IOException;
+}
@@ -0,0 +1,253 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.service.dto.DeviceRequest;
+import dev.huggo.vntl_backend.service.dto.ImportResponse;
+import dev.huggo.vntl_backend.service.dto.ImportRowError;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Importação em lote de aparelhos a partir de CSV ou JSON (array ou NDJSON).
+ *
+ * A entrada é lida item a item e acumulada em blocos de {@code import.chunk-size} linhas válidas.
+ * Cada bloco roda na sua própria transação: uma consulta descobre quais números de patrimônio
+ * já existem e os novos aparelhos são inseridos em batch JDBC (ids vêm da sequência em blocos,
+ * ver {@link Device}). Linhas inválidas ou duplicadas entram no relatório de erros
+ * sem interromper a importação.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceImportServiceImpl implements DeviceImportService {
+
+    private final DeviceRepository deviceRepository;
+    private final DashboardCounters dashboardCounters;
+    private final DeviceHistoryWriter deviceHistoryWriter;
+    private final ChangeTracker changeTracker;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ImportResponse importCsv(InputStream in) throws IOException {
+        Batch batch = new Batch();
+        try (CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            if (!csv.readHeader()) {
+                return batch.finish();
+            }
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                List<String> fields = record;
+                batch.accept(csv.recordNumber(), () -> fromCsv(csv, fields));
+            }
+        }
+        return batch.finish();
+    }
+
+    @Override
+    public ImportResponse importJson(InputStream in) throws IOException {
+        Batch batch = new Batch();
+        long position = 0;
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+            while (items.hasNextValue()) {
+                JsonNode node = items.nextValue();
+                batch.accept(++position, () -> objectMapper.treeToValue(node, DeviceRequest.class));
+            }
+        } catch (JacksonException e) {
+            // Erro de sintaxe: não dá para continuar lendo o restante do arquivo
+            throw new IllegalArgumentException("Invalid JSON after item " + position + ": " + e.getOriginalMessage());
+        }
+        return batch.finish();
+    }
+
+    private static DeviceRequest fromCsv(CsvReader csv, List<String> record) {
+        DeviceRequest request = new DeviceRequest();
+        request.setAssetNumber(csv.get(record, "numeroPatrimonio"));
+        request.setType(csv.get(record, "tipo"));
+        request.setBrand(csv.get(record, "marca"));
+        request.setModel(csv.get(record, "modelo"));
+        request.setSerialNumber(csv.get(record, "numeroSerie"));
+        request.setPurchaseDate(CsvReader.parseDate(csv.get(record, "dataCompra")));
+        request.setStatus(csv.get(record, "status"));
+        request.setObservations(csv.get(record, "observacoes"));
+        return request;
+    }
+
+    private record Row(long line, DeviceRequest request, DeviceStatus status) {
+    }
+
+    /**
+     * Estado de uma importação: bloco pendente, números já vistos no arquivo e erros.
+     */
+    private final class Batch {
+
+        private final long startedAt = System.nanoTime();
+        private final List<Row> pending = new ArrayList<>();
+        private final Set<String> seenAssetNumbers = new HashSet<>();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long total;
+        private long imported;
+
+        void accept(long line, Supplier<DeviceRequest> parser) {
+            total++;
+            DeviceRequest request;
+            DeviceStatus status;
+            try {
+                request = parser.get();
+                String violations = validator.validate(request).stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                if (!violations.isEmpty()) {
+                    errors.add(error(line, request.getAssetNumber(), violations));
+                    return;
+                }
+                status = parseStatus(request.getStatus());
+            } catch (JacksonException e) {
+                errors.add(error(line, null, "Invalid value: " + e.getOriginalMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                errors.add(error(line, null, e.getMessage()));
+                return;
+            }
+
+            request.setAssetNumber(request.getAssetNumber().trim());
+            if (!seenAssetNumbers.add(request.getAssetNumber())) {
+                errors.add(error(line, request.getAssetNumber(), "Duplicate asset number in file"));
+                return;
+            }
+
+            pending.add(new Row(line, request, status));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        ImportResponse finish() {
+            flush();
+            errors.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+            log.info("Imported {} of {} devices in {} ms ({} errors)",
+                    imported, total, (System.nanoTime() - startedAt) / 1_000_000, errors.size());
+            return ImportResponse.builder()
+                    .total(total)
+                    .imported(imported)
+                    .errors(errors)
+                    .build();
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                List<ImportRowError> rejected = new ArrayList<>();
+                imported += transactionTemplate.execute(status -> insert(pending, rejected));
+                errors.addAll(rejected);
+            } catch (DataIntegrityViolationException e) {
+                // Outro processo cadastrou um dos patrimônios entre a checagem e o INSERT;
+                // refaz o bloco linha a linha para isolar quem falhou
+                log.warn("Device import chunk rejected; retrying {} rows one by one", pending.size());
+                for (Row row : pending) {
+                    try {
+                        List<ImportRowError> rejected = new ArrayList<>();
+                        imported += transactionTemplate.execute(status -> insert(List.of(row), rejected));
+                        errors.addAll(rejected);
+                    } catch (DataIntegrityViolationException rowError) {
+                        errors.add(error(row.line(), row.request().getAssetNumber(), "Asset number already exists"));
+                    }
+                }
+            }
+            pending.clear();
+        }
+
+        /**
+         * @param rejected recebe as linhas recusadas; só vale se a transação for confirmada
+         */
+        private int insert(List<Row> rows, List<ImportRowError> rejected) {
+            Set<String> existing = new HashSet<>(deviceRepository.findExistingAssetNumbers(
+                    rows.stream().map(row -> row.request().getAssetNumber()).toList()));
+
+            List<Device> devices = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                if (existing.contains(row.request().getAssetNumber())) {
+                    rejected.add(error(row.line(), row.request().getAssetNumber(), "Asset number already exists"));
+                    continue;
+                }
+                DeviceRequest request = row.request();
+                devices.add(Device.builder()
+                        .assetNumber(request.getAssetNumber())
+                        .type(request.getType())
+                        .brand(request.getBrand())
+                        .model(request.getModel())
+                        .serialNumber(request.getSerialNumber())
+                        .purchaseDate(request.getPurchaseDate())
+                        .status(row.status())
+                        .observations(request.getObservations())
+                        .build());
+            }
+
+            deviceRepository.saveAll(devices);
+            deviceRepository.flush();
+            for (Device device : devices) {
+                dashboardCounters.deviceChanged(null, device.getStatus());
+                deviceHistoryWriter.record(device.getId(), null, null, device.getStatus(), "Importação em lote");
+            }
+            if (!devices.isEmpty()) {
+                changeTracker.changed(ChangeEntityType.APARELHO, null);
+            }
+            return devices.size();
+        }
+    }
+
+    private static DeviceStatus parseStatus(String value) {
+        try {
+            return DeviceStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status: " + value);
+        }
+    }
+
+    private static ImportRowError error(long line, String key, String message) {
+        return ImportRowError.builder()
+                .line(line)
+                .key(key)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Movimentação de aparelho aguardando gravação em {@code device_history}.
+ *
+ * @param username usuário autenticado que fez a alteração; resolvido para {@code user_id} na gravação
+ */
+public record DeviceMovement(
+        Long deviceId,
+        Long patientId,
+        DeviceStatus previousStatus,
+        DeviceStatus newStatus,
+        LocalDateTime movementDate,
+        String observations,
+        String username) {
+}
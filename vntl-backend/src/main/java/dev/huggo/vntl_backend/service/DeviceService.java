@@ -1,13 +1,26 @@
 package dev.huggo.vntl_backend.service;
 
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.repository.DeviceFilter;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
+import dev.huggo.vntl_backend.service.dto.DeviceHistoryResponse;
 import dev.huggo.vntl_backend.service.dto.DeviceRequest;
 import dev.huggo.vntl_backend.service.dto.DeviceResponse;
+import dev.huggo.vntl_backend.service.dto.LookupItem;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface DeviceService {
     DeviceResponse create(DeviceRequest request);
     DeviceResponse update(Long id, DeviceRequest request);
     DeviceResponse getById(Long id);
-    List<DeviceResponse> listAll(String status);
+    CursorPage<DeviceResponse> list(DeviceFilter filter, String cursor, int limit);
+    CursorPage<Map<String, Object>> list(DeviceFilter filter, Collection<String> fields, String cursor, int limit);
+    List<LookupItem> lookup(DeviceStatus status, String type, String query, Long include, int limit);
+    ChangeFeed<DeviceResponse> changes(Instant since, int limit);
+    CursorPage<DeviceHistoryResponse> history(Long id, String cursor, int limit);
     void delete(Long id);
 }
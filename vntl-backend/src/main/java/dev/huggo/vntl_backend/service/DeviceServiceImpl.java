@@ -1,18 +1,41 @@
 package dev.huggo.vntl_backend.service;
 
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
 import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceHistory;
 import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.repository.DeviceFilter;
+import dev.huggo.vntl_backend.repository.DeviceHistoryRepository;
+import dev.huggo.vntl_backend.repository.DeviceListRow;
 import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.repository.KeysetCursor;
+import dev.huggo.vntl_backend.repository.LookupRow;
 import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.ProjectedRow;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
+import dev.huggo.vntl_backend.service.dto.DeviceHistoryResponse;
 import dev.huggo.vntl_backend.service.dto.DeviceRequest;
 import dev.huggo.vntl_backend.service.dto.DeviceResponse;
+import dev.huggo.vntl_backend.service.dto.LookupItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -20,8 +43,33 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class DeviceServiceImpl implements DeviceService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final DeviceRepository deviceRepository;
     private final PatientRepository patientRepository;
+    private final DeviceHistoryRepository deviceHistoryRepository;
+    private final DashboardCounters dashboardCounters;
+    private final DeviceHistoryWriter deviceHistoryWriter;
+    private final ChangeTracker changeTracker;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${cache.entities.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${cache.entities.list-max-size:200}")
+    private long listCacheMaxSize;
+
+    @Value("${cache.entities.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    private EntityCache<DeviceResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new EntityCache<>("devices", cacheMaxSize, listCacheMaxSize, cacheTtl, meterRegistry, transactionManager);
+        changeTracker.onCommitted(ChangeEntityType.APARELHO, cache::invalidate);
+    }
 
     @Override
     @Transactional
@@ -30,6 +78,9 @@ public class DeviceServiceImpl implements DeviceService {
         applyRequest(request, device);
         try {
             Device saved = deviceRepository.save(device);
+            dashboardCounters.deviceChanged(null, saved.getStatus());
+            changeTracker.changed(ChangeEntityType.APARELHO, saved.getId());
+            deviceHistoryWriter.record(saved.getId(), null, null, saved.getStatus(), "Cadastro do aparelho");
             log.info("Created device id={}", saved.getId());
             return toResponse(saved);
         } catch (DataIntegrityViolationException e) {
@@ -47,31 +98,126 @@ public class DeviceServiceImpl implements DeviceService {
                 .filter(d -> !d.getId().equals(id))
                 .ifPresent(d -> { throw new IllegalArgumentException("Asset number already exists"); });
 
+        DeviceStatus previousStatus = device.getStatus();
+        String previousType = device.getType();
+        String previousAssetNumber = device.getAssetNumber();
         applyRequest(request, device);
         Device saved = deviceRepository.save(device);
+        dashboardCounters.deviceChanged(previousStatus, saved.getStatus());
+        changeTracker.changed(ChangeEntityType.APARELHO, id);
+        if (!Objects.equals(previousType, saved.getType()) || !Objects.equals(previousAssetNumber, saved.getAssetNumber())) {
+            changeTracker.deviceRelabeled(saved.getId());
+        }
+        if (previousStatus != saved.getStatus()) {
+            deviceHistoryWriter.record(saved.getId(), null, previousStatus, saved.getStatus(), null);
+        }
         log.info("Updated device id={}", saved.getId());
         return toResponse(saved);
     }
 
+    // Leituras em cache ficam sem @Transactional: um acerto não abre transação nem ocupa conexão,
+    // e cada carga é uma única consulta, numa transação somente leitura aberta pelo EntityCache
+
     @Override
-    @Transactional(readOnly = true)
     public DeviceResponse getById(Long id) {
-        Device device = deviceRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Device not found"));
-        return toResponse(device);
+        DeviceResponse response = cache.get(id, key -> deviceRepository.findRowById(key).map(this::toResponse).orElse(null));
+        if (response == null) {
+            throw new IllegalArgumentException("Device not found");
+        }
+        return response;
+    }
+
+    @Override
+    public CursorPage<DeviceResponse> list(DeviceFilter filter, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return cache.list(Arrays.asList("page", filter, cursor, pageSize), () -> loadPage(filter, cursor, pageSize));
+    }
+
+    private CursorPage<DeviceResponse> loadPage(DeviceFilter filter, String cursor, int pageSize) {
+        // Busca um registro a mais só para saber se existe próxima página
+        List<DeviceListRow> rows = deviceRepository.findPage(filter, KeysetCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<DeviceListRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        DeviceListRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<DeviceResponse>builder()
+                .items(page.stream().map(this::toResponse).toList())
+                .nextCursor(hasMore ? new KeysetCursor(last.assetNumber(), last.id()).encode() : null)
+                .build();
+    }
+
+    @Override
+    public CursorPage<Map<String, Object>> list(DeviceFilter filter, Collection<String> fields, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return cache.list(Arrays.asList("fields", filter, List.copyOf(fields), cursor, pageSize),
+                () -> loadPage(filter, fields, cursor, pageSize));
+    }
+
+    private CursorPage<Map<String, Object>> loadPage(DeviceFilter filter, Collection<String> fields, String cursor, int pageSize) {
+        List<ProjectedRow> rows = deviceRepository.findPage(filter, KeysetCursor.decode(cursor), pageSize + 1, fields);
+        boolean hasMore = rows.size() > pageSize;
+        List<ProjectedRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        ProjectedRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<Map<String, Object>>builder()
+                .items(page.stream().map(ProjectedRow::fields).toList())
+                .nextCursor(hasMore ? new KeysetCursor(last.sortKey(), last.id()).encode() : null)
+                .build();
+    }
+
+    /**
+     * Opções do campo de aparelho. {@code include} (o aparelho já vinculado ao formulário) entra
+     * na lista mesmo fora do filtro, para o campo conseguir exibir o valor atual.
+     */
+    @Override
+    public List<LookupItem> lookup(DeviceStatus status, String type, String query, Long include, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return cache.list(Arrays.asList("lookup", status, type, query, include, pageSize),
+                () -> loadLookup(status, type, query, include, pageSize));
+    }
+
+    private List<LookupItem> loadLookup(DeviceStatus status, String type, String query, Long include, int pageSize) {
+        List<LookupRow> rows = new ArrayList<>(deviceRepository.findLookup(status, type, query, pageSize));
+        if (include != null && rows.stream().noneMatch(row -> row.id().equals(include))) {
+            deviceRepository.findById(include)
+                    .ifPresent(device -> rows.add(0, new LookupRow(device.getId(), device.getAssetNumber(), device.getType())));
+        }
+        return rows.stream()
+                .map(row -> LookupItem.builder()
+                        .id(row.id())
+                        .label(row.label() + " - " + row.detail())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public ChangeFeed<DeviceResponse> changes(Instant since, int limit) {
+        return changeTracker.feed(ChangeEntityType.APARELHO, since, limit,
+                deviceRepository::findChangedSince, DeviceListRow::updatedAt, this::toResponse);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<DeviceResponse> listAll(String status) {
-        List<Device> devices;
-        if (status == null || status.isBlank()) {
-            devices = deviceRepository.findAll();
-        } else {
-            DeviceStatus parsed = DeviceStatus.valueOf(status.toUpperCase(Locale.ROOT));
-            devices = deviceRepository.findByStatus(parsed);
+    public CursorPage<DeviceHistoryResponse> history(Long id, String cursor, int limit) {
+        if (!deviceRepository.existsById(id)) {
+            throw new IllegalArgumentException("Device not found");
         }
-        return devices.stream().map(this::toResponse).collect(Collectors.toList());
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        // Mais recentes primeiro; busca um registro a mais só para saber se existe próxima página
+        List<DeviceHistory> rows = position == null
+                ? deviceHistoryRepository.findLatest(id, Limit.of(pageSize + 1))
+                : deviceHistoryRepository.findBefore(id, parseMovementDate(position.key()), position.id(),
+                        Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<DeviceHistory> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        DeviceHistory last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<DeviceHistoryResponse>builder()
+                .items(page.stream().map(this::toHistoryResponse).toList())
+                .nextCursor(hasMore ? new KeysetCursor(last.getMovementDate().toString(), last.getId()).encode() : null)
+                .build();
     }
 
     @Override
@@ -80,6 +226,8 @@ public class DeviceServiceImpl implements DeviceService {
         Device device = deviceRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Device not found"));
         deviceRepository.delete(device);
+        dashboardCounters.deviceChanged(device.getStatus(), null);
+        changeTracker.deleted(ChangeEntityType.APARELHO, id);
         log.info("Deleted device id={}", id);
     }
 
@@ -94,6 +242,43 @@ public class DeviceServiceImpl implements DeviceService {
         device.setObservations(request.getObservations());
     }
 
+    private static LocalDateTime parseMovementDate(String key) {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private DeviceHistoryResponse toHistoryResponse(DeviceHistory history) {
+        return DeviceHistoryResponse.builder()
+                .id(history.getId())
+                .deviceId(history.getDeviceId())
+                .patientId(history.getPatientId())
+                .previousStatus(history.getPreviousStatus() != null ? history.getPreviousStatus().name() : null)
+                .newStatus(history.getNewStatus().name())
+                .movementDate(history.getMovementDate())
+                .observations(history.getObservations())
+                .userId(history.getUserId())
+                .build();
+    }
+
+    private DeviceResponse toResponse(DeviceListRow row) {
+        return DeviceResponse.builder()
+                .id(row.id())
+                .assetNumber(row.assetNumber())
+                .type(row.type())
+                .brand(row.brand())
+                .model(row.model())
+                .serialNumber(row.serialNumber())
+                .purchaseDate(row.purchaseDate())
+                .status(row.status().name())
+                .patientId(row.patientId())
+                .patientName(row.patientName())
+                .observations(row.observations())
+                .build();
+    }
+
     private DeviceResponse toResponse(Device device) {
         var patient = patientRepository.findByDeviceId(device.getId());
         return DeviceResponse.builder()
@@ -0,0 +1,107 @@
+package dev.huggo.vntl_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.huggo.vntl_backend.config.ReadRouting;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cache local (near cache) de um tipo de registro: valores por id e, opcionalmente, resultados de listagens.
+ *
+ * A invalidação vem dos avisos de alteração após o commit ({@link ChangeTracker#onCommitted}). Uma listagem
+ * depende de muitas linhas, então qualquer alteração descarta todas. As chaves levam uma geração: uma carga
+ * que estava em andamento durante uma invalidação em massa grava sob a geração antiga, que ninguém mais lê.
+ * Alterações feitas em outras instâncias chegam pelo {@link InvalidationBus}; o TTL só limita o atraso
+ * se algum aviso se perder. As cargas leem do primário ({@link ReadRouting}): uma réplica atrasada logo
+ * após a invalidação deixaria o valor antigo no cache.
+ *
+ * Cada carga roda numa transação somente leitura própria (ou participa da transação do chamador):
+ * quem lê pelo cache não precisa de {@code @Transactional}, nem de um EntityManager aberto pela requisição.
+ *
+ * Métricas (acertos, remoções, tempo de carga) em {@code cache.*} com a tag {@code cache=<name>}.
+ */
+final class EntityCache<V> {
+
+    private final Cache<Key, V> byId;
+    private final Cache<Key, Object> lists;
+    private final AtomicLong idGeneration = new AtomicLong();
+    private final AtomicLong listGeneration = new AtomicLong();
+    private final TransactionTemplate readTransaction;
+
+    /**
+     * @param listMaxSize 0 para não guardar listagens
+     */
+    EntityCache(String name, long maxSize, long listMaxSize, Duration ttl, MeterRegistry meterRegistry,
+                PlatformTransactionManager transactionManager) {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+
+        byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, name);
+
+        if (listMaxSize > 0) {
+            lists = Caffeine.newBuilder()
+                    .maximumSize(listMaxSize)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, lists, name + ".lists");
+        } else {
+            lists = null;
+        }
+    }
+
+    /**
+     * @return valor do cache ou do {@code loader}; {@code null} do loader não é guardado
+     */
+    V get(Long id, Function<Long, V> loader) {
+        return byId.get(new Key(idGeneration.get(), id), key -> load(() -> loader.apply(id)));
+    }
+
+    /**
+     * @param params tudo o que muda o resultado (filtros, cursor, limite), com equals/hashCode por valor
+     */
+    @SuppressWarnings("unchecked")
+    <T> T list(Object params, Supplier<T> loader) {
+        if (lists == null) {
+            return load(loader);
+        }
+        return (T) lists.get(new Key(listGeneration.get(), params), key -> load(loader));
+    }
+
+    /**
+     * @param id {@code null} quando várias linhas mudaram de uma vez
+     */
+    void invalidate(Long id) {
+        if (lists != null) {
+            listGeneration.incrementAndGet();
+            lists.invalidateAll();
+        }
+        if (id == null) {
+            idGeneration.incrementAndGet();
+            byId.invalidateAll();
+        } else {
+            // Espera uma carga em andamento da mesma chave terminar antes de remover
+            byId.invalidate(new Key(idGeneration.get(), id));
+        }
+    }
+
+    private <T> T load(Supplier<T> loader) {
+        // onPrimary por fora: só vale para transações abertas dentro dele
+        return ReadRouting.onPrimary(() -> readTransaction.execute(status -> loader.get()));
+    }
+
+    private record Key(long generation, Object value) {
+    }
+}
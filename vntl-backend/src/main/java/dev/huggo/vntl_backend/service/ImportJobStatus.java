@@ -0,0 +1,8 @@
+package dev.huggo.vntl_backend.service;
+
+public enum ImportJobStatus {
+    PENDENTE,
+    PROCESSANDO,
+    CONCLUIDO,
+    FALHOU
+}
@@ -0,0 +1,337 @@
+package dev.huggo.vntl_backend.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Barramento de invalidação entre instâncias via {@code LISTEN/NOTIFY} do Postgres, sem broker externo.
+ *
+ * Alterações de pacientes, aparelhos e profissionais (vindas do {@link ChangeTracker}) e de usuários são
+ * enfileiradas após o commit; uma thread junta as rajadas de {@code cache.bus.coalesce-window} e publica
+ * uma única notificação por lote. Cada instância escuta o canal numa conexão dedicada e aplica os avisos
+ * das outras como se fossem locais: caches ({@link EntityCache}, ETags, principais) e clientes SSE.
+ *
+ * Avisos emitidos enquanto a escuta estava fora do ar se perdem, então toda (re)conexão descarta os
+ * caches inteiros antes de voltar a confiar neles. A conexão de escuta sai do pool e fica presa a este
+ * componente: o pool precisa de uma conexão a mais.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvalidationBus {
+
+    private static final String CHANNEL = "vntl_invalidation";
+
+    // Limite do NOTIFY é 8000 bytes; acima disso o lote vira "tudo mudou" por tipo
+    private static final int MAX_PAYLOAD_BYTES = 7500;
+
+    private static final int MAX_IDS_PER_TYPE = 100;
+
+    // Todos os usuários mudaram; um usuário chamado "*" no máximo esvazia o cache à toa
+    private static final String ALL_USERS = "*";
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ChangeEventBroadcaster broadcaster;
+    private final ResourceVersions resourceVersions;
+    private final UserDetailsServiceImpl userDetailsService;
+
+    @Value("${cache.bus.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.bus.coalesce-window:PT0.05S}")
+    private Duration coalesceWindow;
+
+    @Value("${cache.bus.poll-interval:PT0.5S}")
+    private Duration pollInterval;
+
+    @Value("${cache.bus.health-check-interval:PT30S}")
+    private Duration healthCheckInterval;
+
+    @Value("${cache.bus.reconnect-backoff-max:PT30S}")
+    private Duration maxBackoff;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<Object> outgoing = new LinkedBlockingQueue<>();
+    private final AtomicInteger connected = new AtomicInteger();
+    private volatile boolean running;
+    private ExecutorService listener;
+    private ExecutorService sender;
+    private Counter published;
+    private Counter received;
+    private Counter reconnects;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("cache.bus.connected", connected, AtomicInteger::get).register(meterRegistry);
+        published = Counter.builder("cache.bus.published").register(meterRegistry);
+        received = Counter.builder("cache.bus.received").register(meterRegistry);
+        reconnects = Counter.builder("cache.bus.reconnects").register(meterRegistry);
+        if (!enabled) {
+            log.info("Cache invalidation bus disabled");
+            return;
+        }
+        running = true;
+        listener = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-bus-listener");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-bus-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        listener.submit(this::listen);
+        sender.submit(this::send);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (listener != null) {
+            listener.shutdownNow();
+            sender.shutdownNow();
+        }
+    }
+
+    /* =========================
+       Publishing
+       ========================= */
+
+    /**
+     * Publica a alteração às outras instâncias após o commit da transação atual (imediatamente se não houver).
+     * Chamado depois de {@link ResourceVersions#changed}, para que a versão da coleção já tenha sido
+     * incrementada quando as outras instâncias a relerem.
+     */
+    public void changed(ChangeEntityType type, Long id, boolean deleted) {
+        if (!running) {
+            return;
+        }
+        ChangeEvent event = new ChangeEvent(type, id, deleted);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outgoing.add(event);
+            return;
+        }
+        Set<ChangeEvent> pending = TransactionEffects.buffer(this, LinkedHashSet::new, events ->
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        outgoing.addAll(events);
+                    }
+                });
+        pending.add(event);
+    }
+
+    /**
+     * Usuário alterado ou removido; chamado após o commit ({@link UserCacheEvictionListener}).
+     */
+    public void userChanged(String username) {
+        if (running && username != null) {
+            outgoing.add(new UserChange(username));
+        }
+    }
+
+    private void send() {
+        Set<ChangeEvent> changes = new LinkedHashSet<>();
+        Set<String> users = new LinkedHashSet<>();
+        while (running) {
+            try {
+                List<Object> batch = new ArrayList<>();
+                batch.add(outgoing.take());
+                // Junta a rajada (importações, reatribuições) numa única notificação
+                Thread.sleep(coalesceWindow.toMillis());
+                outgoing.drainTo(batch);
+                for (Object item : batch) {
+                    if (item instanceof UserChange user) {
+                        users.add(user.username());
+                    } else {
+                        changes.add((ChangeEvent) item);
+                    }
+                }
+
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    statement.setString(1, CHANNEL);
+                    statement.setString(2, payload(changes, users));
+                    statement.execute();
+                    published.increment();
+                    changes.clear();
+                    users.clear();
+                } catch (SQLException e) {
+                    // Mantém o lote para a próxima tentativa; enquanto isso as outras instâncias contam com o TTL
+                    log.warn("Failed to publish cache invalidation: {}", e.getMessage());
+                    collapse(changes, users);
+                    Thread.sleep(1000);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private String payload(Set<ChangeEvent> changes, Set<String> users) {
+        String payload = objectMapper.writeValueAsString(new Message(nodeId, List.copyOf(changes), List.copyOf(users)));
+        if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+            return payload;
+        }
+        Set<ChangeEvent> bulk = new LinkedHashSet<>();
+        changes.forEach(event -> bulk.add(new ChangeEvent(event.type(), null, false)));
+        return objectMapper.writeValueAsString(new Message(nodeId, List.copyOf(bulk), users.isEmpty() ? List.of() : List.of(ALL_USERS)));
+    }
+
+    /**
+     * Limita o lote retido entre tentativas: muitos ids de um tipo viram um aviso sem id.
+     */
+    private static void collapse(Set<ChangeEvent> changes, Set<String> users) {
+        Set<ChangeEntityType> bulk = EnumSet.noneOf(ChangeEntityType.class);
+        for (ChangeEntityType type : ChangeEntityType.values()) {
+            if (changes.stream().filter(event -> event.type() == type).count() > MAX_IDS_PER_TYPE) {
+                bulk.add(type);
+            }
+        }
+        if (!bulk.isEmpty()) {
+            changes.removeIf(event -> bulk.contains(event.type()));
+            bulk.forEach(type -> changes.add(new ChangeEvent(type, null, false)));
+        }
+        if (users.size() > MAX_IDS_PER_TYPE) {
+            users.clear();
+            users.add(ALL_USERS);
+        }
+    }
+
+    /* =========================
+       Listening
+       ========================= */
+
+    private void listen() {
+        long backoff = 1000;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                connected.set(1);
+                backoff = 1000;
+                log.info("Cache invalidation bus listening on channel {}", CHANNEL);
+                // O que foi carregado antes da escuta pode ter perdido avisos
+                invalidateAll();
+
+                long nextCheck = System.nanoTime() + healthCheckInterval.toNanos();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                    if (System.nanoTime() - nextCheck >= 0) {
+                        // Uma conexão morta sem RST só aparece quando algo é enviado
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        nextCheck = System.nanoTime() + healthCheckInterval.toNanos();
+                    }
+                }
+            } catch (SQLException e) {
+                connected.set(0);
+                if (!running) {
+                    return;
+                }
+                reconnects.increment();
+                log.warn("Cache invalidation listener disconnected; retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxBackoff.toMillis());
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation listener failed", e);
+            }
+        }
+        connected.set(0);
+    }
+
+    private void handle(String payload) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (JacksonException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", e.getOriginalMessage());
+            return;
+        }
+        if (nodeId.equals(message.node())) {
+            return;
+        }
+        received.increment();
+        for (ChangeEvent event : message.changes()) {
+            apply(event);
+        }
+        if (message.users().contains(ALL_USERS)) {
+            userDetailsService.evictAll();
+        } else {
+            message.users().forEach(userDetailsService::evict);
+        }
+    }
+
+    private void invalidateAll() {
+        for (ChangeEntityType type : ChangeEntityType.values()) {
+            apply(new ChangeEvent(type, null, false));
+        }
+        userDetailsService.evictAll();
+    }
+
+    private void apply(ChangeEvent event) {
+        // Caches de dados antes das versões, como no commit local (ver ResourceVersions)
+        broadcaster.deliver(event);
+        resourceVersions.invalidate(event.type(), event.id());
+    }
+
+    private record Message(
+            @JsonProperty("no") String node,
+            @JsonProperty("alteracoes") List<ChangeEvent> changes,
+            @JsonProperty("usuarios") List<String> users) {
+    }
+
+    private record UserChange(String username) {
+    }
+}
@@ -0,0 +1,9 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.repository.PatientFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PatientExportService {
+    void export(PatientFilter filter, ExportFormat format, OutputStream out) throws IOException;
+}
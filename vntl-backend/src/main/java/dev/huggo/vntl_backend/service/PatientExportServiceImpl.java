@@ -0,0 +1,192 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.repository.PatientFilter;
+import dev.huggo.vntl_backend.service.dto.PatientResponse;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Exporta pacientes direto do cursor JDBC para o stream de saída.
+ *
+ * Cada linha é convertida e escrita assim que chega; nenhuma lista é montada em memória.
+ * No PostgreSQL o driver só usa cursor (respeitando o fetch size) dentro de uma transação,
+ * por isso a query roda num {@link TransactionTemplate} somente leitura que dura apenas
+ * o tempo da escrita.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientExportServiceImpl implements PatientExportService {
+
+    private static final String SELECT = "SELECT p.id, p.name, p.cpf, p.birth_date, p.phone, p.secondary_phone, p.email, " +
+            "p.address_street, p.address_number, p.address_complement, p.address_neighborhood, " +
+            "p.address_city, p.address_state, p.address_zip_code, p.contract_type, p.status, " +
+            "p.registration_date, p.last_visit_date, p.next_visit_date, " +
+            "p.device_id, d.type AS device_type, d.asset_number AS device_asset_number, " +
+            "p.professional_responsible_id, pr.name AS professional_name, p.observations " +
+            "FROM patients p " +
+            "LEFT JOIN devices d ON d.id = p.device_id " +
+            "LEFT JOIN professionals pr ON pr.id = p.professional_responsible_id " +
+            "WHERE 1 = 1 ";
+
+    private static final List<String> CSV_HEADER = List.of(
+            "id", "nome", "cpf", "dataNascimento", "telefone", "telefoneSecundario", "email",
+            "enderecoLogradouro", "enderecoNumero", "enderecoComplemento", "enderecoBairro",
+            "enderecoCidade", "enderecoEstado", "enderecoCep", "tipoContrato", "status",
+            "dataRegistro", "dataUltimaVisita", "dataProximaVisita", "aparelhoId", "aparelhoTipo",
+            "aparelhoNumeroPatrimonio", "profissionalResponsavelId", "profissionalResponsavelNome",
+            "observacoes");
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void export(PatientFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        appendFilter(filter, sql, args);
+        sql.append("ORDER BY p.id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            CsvWriter.writeLine(writer, CSV_HEADER);
+        }
+
+        AtomicLong count = new AtomicLong();
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql.toString(), rs -> {
+                        writeRow(writer, format, toResponse(rs));
+                        count.incrementAndGet();
+                    }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            // Normalmente o cliente fechou a conexão no meio do download
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} patients as {}", count.get(), format);
+    }
+
+    private void writeRow(Writer writer, ExportFormat format, PatientResponse patient) {
+        try {
+            if (format == ExportFormat.CSV) {
+                CsvWriter.writeLine(writer, csvValues(patient));
+            } else {
+                writer.write(objectMapper.writeValueAsString(patient));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendFilter(PatientFilter filter, StringBuilder sql, List<Object> args) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.status() != null) {
+            sql.append("AND p.status = ? ");
+            args.add(filter.status().name());
+        }
+        if (filter.contractType() != null) {
+            sql.append("AND p.contract_type = ? ");
+            args.add(filter.contractType().name());
+        }
+        if (filter.professionalId() != null) {
+            sql.append("AND p.professional_responsible_id = ? ");
+            args.add(filter.professionalId());
+        }
+        if (filter.city() != null && !filter.city().isBlank()) {
+            sql.append("AND lower(p.address_city) = ? ");
+            args.add(filter.city().trim().toLowerCase(Locale.ROOT));
+        }
+        if (filter.nextVisitFrom() != null) {
+            sql.append("AND p.next_visit_date >= ? ");
+            args.add(Date.valueOf(filter.nextVisitFrom()));
+        }
+        if (filter.nextVisitTo() != null) {
+            sql.append("AND p.next_visit_date <= ? ");
+            args.add(Date.valueOf(filter.nextVisitTo()));
+        }
+    }
+
+    private static PatientResponse toResponse(ResultSet rs) throws SQLException {
+        return PatientResponse.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .cpf(rs.getString("cpf"))
+                .birthDate(rs.getObject("birth_date", LocalDate.class))
+                .phone(rs.getString("phone"))
+                .secondaryPhone(rs.getString("secondary_phone"))
+                .email(rs.getString("email"))
+                .addressStreet(rs.getString("address_street"))
+                .addressNumber(rs.getString("address_number"))
+                .addressComplement(rs.getString("address_complement"))
+                .addressNeighborhood(rs.getString("address_neighborhood"))
+                .addressCity(rs.getString("address_city"))
+                .addressState(rs.getString("address_state"))
+                .addressZipCode(rs.getString("address_zip_code"))
+                .contractType(rs.getString("contract_type"))
+                .status(rs.getString("status"))
+                .registrationDate(rs.getObject("registration_date", LocalDate.class))
+                .lastVisitDate(rs.getObject("last_visit_date", LocalDate.class))
+                .nextVisitDate(rs.getObject("next_visit_date", LocalDate.class))
+                .deviceId(rs.getObject("device_id", Long.class))
+                .deviceType(rs.getString("device_type"))
+                .deviceAssetNumber(rs.getString("device_asset_number"))
+                .professionalResponsibleId(rs.getObject("professional_responsible_id", Long.class))
+                .professionalResponsibleName(rs.getString("professional_name"))
+                .observations(rs.getString("observations"))
+                .build();
+    }
+
+    private static List<Object> csvValues(PatientResponse p) {
+        return Arrays.asList(
+                p.getId(), p.getName(), p.getCpf(), p.getBirthDate(), p.getPhone(), p.getSecondaryPhone(),
+                p.getEmail(), p.getAddressStreet(), p.getAddressNumber(), p.getAddressComplement(),
+                p.getAddressNeighborhood(), p.getAddressCity(), p.getAddressState(), p.getAddressZipCode(),
+                p.getContractType(), p.getStatus(), p.getRegistrationDate(), p.getLastVisitDate(),
+                p.getNextVisitDate(), p.getDeviceId(), p.getDeviceType(), p.getDeviceAssetNumber(),
+                p.getProfessionalResponsibleId(), p.getProfessionalResponsibleName(), p.getObservations());
+    }
+}
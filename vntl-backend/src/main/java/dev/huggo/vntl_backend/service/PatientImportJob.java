@@ -0,0 +1,92 @@
+package dev.huggo.vntl_backend.service;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado de uma importação de pacientes em andamento. Escrito pela thread da importação
+ * e lido pelas consultas de progresso, por isso os contadores são atômicos/voláteis.
+ */
+public class PatientImportJob {
+
+    private final String id;
+    private final Path sourceFile;
+    private final Path errorFile;
+    private final long totalBytes;
+    private final Instant createdAt = Instant.now();
+
+    final AtomicLong bytesRead = new AtomicLong();
+    final AtomicLong processed = new AtomicLong();
+    final AtomicLong imported = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+
+    private volatile ImportJobStatus status = ImportJobStatus.PENDENTE;
+    private volatile String message;
+    private volatile Instant finishedAt;
+
+    PatientImportJob(String id, Path sourceFile, Path errorFile, long totalBytes) {
+        this.id = id;
+        this.sourceFile = sourceFile;
+        this.errorFile = errorFile;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Path getSourceFile() {
+        return sourceFile;
+    }
+
+    public Path getErrorFile() {
+        return errorFile;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        status = ImportJobStatus.PROCESSANDO;
+    }
+
+    void finish(ImportJobStatus finalStatus, String finalMessage) {
+        message = finalMessage;
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+}
@@ -0,0 +1,13 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.service.dto.ImportJobResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface PatientImportService {
+    ImportJobResponse start(InputStream csv) throws IOException;
+    Optional<ImportJobResponse> status(String jobId);
+    Optional<Path> errorFile(String jobId);
+}
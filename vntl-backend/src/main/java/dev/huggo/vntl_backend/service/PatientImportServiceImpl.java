@@ -0,0 +1,447 @@
+package dev.huggo.vntl_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.service.dto.ImportJobResponse;
+import dev.huggo.vntl_backend.service.dto.PatientRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Importação de pacientes a partir de planilhas CSV, em segundo plano.
+ *
+ * O upload é copiado para um arquivo temporário e processado por uma thread própria; o cliente
+ * acompanha o progresso pelo id do job. O CSV é lido registro a registro e só um bloco
+ * ({@code import.chunk-size} linhas) fica em memória: cada bloco é validado contra as restrições
+ * de {@link PatientRequest}, tem os CPFs conferidos no banco numa única consulta e é gravado
+ * em batch na sua própria transação. As linhas recusadas vão para um CSV de erros no disco
+ * (número da linha, motivo e a linha original), que pode ser corrigido e reenviado.
+ *
+ * A coluna {@code aparelhoId} é ignorada: vincular aparelhos exige a reserva feita em
+ * {@link PatientServiceImpl}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientImportServiceImpl implements PatientImportService {
+
+    private final PatientRepository patientRepository;
+    private final DashboardCounters dashboardCounters;
+    private final ChangeTracker changeTracker;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${import.patient.threads:1}")
+    private int threads;
+
+    @Value("${import.job-ttl:PT1H}")
+    private Duration jobTtl;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+    private Cache<String, PatientImportJob> jobs;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "patient-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Jobs em andamento nunca expiram; concluídos ficam disponíveis por import.job-ttl
+        jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, PatientImportJob>() {
+                    @Override
+                    public long expireAfterCreate(String key, PatientImportJob job, long currentTime) {
+                        return Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, PatientImportJob job, long currentTime, long currentDuration) {
+                        return job.getFinishedAt() != null ? jobTtl.toNanos() : currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, PatientImportJob job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String key, PatientImportJob job, RemovalCause cause) -> {
+                    // REPLACED é o próprio job reinserido ao terminar
+                    if (job != null && cause != RemovalCause.REPLACED) {
+                        deleteQuietly(job.getSourceFile());
+                        deleteQuietly(job.getErrorFile());
+                    }
+                })
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        jobs.invalidateAll();
+    }
+
+    @Override
+    public ImportJobResponse start(InputStream csv) throws IOException {
+        Path source = Files.createTempFile("patient-import-", ".csv");
+        Path errors = Files.createTempFile("patient-import-errors-", ".csv");
+        try {
+            Files.copy(csv, source, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(source);
+            deleteQuietly(errors);
+            throw e;
+        }
+
+        PatientImportJob job = new PatientImportJob(UUID.randomUUID().toString(), source, errors, Files.size(source));
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            throw new IllegalStateException("Import executor is shut down", e);
+        }
+        log.info("Queued patient import job={} ({} bytes)", job.getId(), job.getTotalBytes());
+        return toResponse(job);
+    }
+
+    @Override
+    public Optional<ImportJobResponse> status(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(this::toResponse);
+    }
+
+    @Override
+    public Optional<Path> errorFile(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+                .filter(job -> job.getFinishedAt() != null)
+                .map(PatientImportJob::getErrorFile);
+    }
+
+    /* =========================
+       Processing
+       ========================= */
+
+    private void run(PatientImportJob job) {
+        job.start();
+        long startedAt = System.nanoTime();
+        try (InputStream in = new CountingInputStream(Files.newInputStream(job.getSourceFile()), job);
+             CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+             Writer errorWriter = Files.newBufferedWriter(job.getErrorFile(), StandardCharsets.UTF_8)) {
+
+            if (!csv.readHeader()) {
+                job.finish(ImportJobStatus.CONCLUIDO, "Empty file");
+                return;
+            }
+            // BOM para o Excel abrir o arquivo de erros como UTF-8
+            errorWriter.write('\uFEFF');
+            List<String> errorHeader = new ArrayList<>(List.of("linha", "erro"));
+            errorHeader.addAll(csv.header());
+            CsvWriter.writeLine(errorWriter, errorHeader);
+
+            Chunk chunk = new Chunk(job, errorWriter);
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                chunk.accept(csv.recordNumber(), record, csv);
+            }
+            chunk.flush();
+
+            job.finish(ImportJobStatus.CONCLUIDO, null);
+            log.info("Patient import job={} imported {} of {} rows in {} ms ({} errors)",
+                    job.getId(), job.getImported(), job.getProcessed(),
+                    (System.nanoTime() - startedAt) / 1_000_000, job.getErrors());
+        } catch (IOException | RuntimeException e) {
+            log.error("Patient import job={} failed after {} rows", job.getId(), job.getProcessed(), e);
+            job.finish(ImportJobStatus.FALHOU, e.getMessage());
+        } finally {
+            deleteQuietly(job.getSourceFile());
+            // Reinsere para a expiração passar a contar a partir do fim
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private record Row(long line, List<String> raw, Patient patient) {
+    }
+
+    /**
+     * Bloco de linhas válidas aguardando gravação; nunca passa de {@code chunkSize} linhas.
+     */
+    private final class Chunk {
+
+        private final PatientImportJob job;
+        private final Writer errorWriter;
+        private final List<Row> rows = new ArrayList<>();
+        private final Set<String> cpfs = new HashSet<>();
+
+        Chunk(PatientImportJob job, Writer errorWriter) {
+            this.job = job;
+            this.errorWriter = errorWriter;
+        }
+
+        void accept(long line, List<String> record, CsvReader csv) throws IOException {
+            job.processed.incrementAndGet();
+            Patient patient;
+            try {
+                PatientRequest request = fromCsv(csv, record);
+                String violations = validator.validate(request).stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                if (!violations.isEmpty()) {
+                    reject(line, record, violations);
+                    return;
+                }
+                patient = toPatient(request);
+            } catch (IllegalArgumentException e) {
+                reject(line, record, e.getMessage());
+                return;
+            }
+
+            if (!cpfs.add(patient.getCpf())) {
+                reject(line, record, "Duplicate CPF in file");
+                return;
+            }
+            rows.add(new Row(line, record, patient));
+            if (rows.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                List<Row> rejected = new ArrayList<>();
+                job.imported.addAndGet(transactionTemplate.execute(status -> insert(rows, rejected)));
+                for (Row row : rejected) {
+                    reject(row.line(), row.raw(), "CPF already exists");
+                }
+            } catch (DataIntegrityViolationException e) {
+                // CPF cadastrado em paralelo ou profissional inexistente: isola linha a linha
+                log.warn("Patient import job={} chunk rejected; retrying {} rows one by one", job.getId(), rows.size());
+                for (Row row : rows) {
+                    row.patient().setId(null);
+                    try {
+                        List<Row> rejected = new ArrayList<>();
+                        job.imported.addAndGet(transactionTemplate.execute(status -> insert(List.of(row), rejected)));
+                        if (!rejected.isEmpty()) {
+                            reject(row.line(), row.raw(), "CPF already exists");
+                        }
+                    } catch (DataIntegrityViolationException rowError) {
+                        reject(row.line(), row.raw(), "Constraint violation: "
+                                + rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            rows.clear();
+            cpfs.clear();
+            errorWriter.flush();
+        }
+
+        /**
+         * @param rejected recebe as linhas com CPF já cadastrado; só vale se a transação for confirmada
+         */
+        private int insert(List<Row> chunk, List<Row> rejected) {
+            Set<String> existing = new HashSet<>(patientRepository.findExistingCpfs(
+                    chunk.stream().map(row -> row.patient().getCpf()).toList()));
+
+            List<Patient> patients = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                if (existing.contains(row.patient().getCpf())) {
+                    rejected.add(row);
+                } else {
+                    patients.add(row.patient());
+                }
+            }
+
+            patientRepository.saveAll(patients);
+            patientRepository.flush();
+            for (Patient patient : patients) {
+                dashboardCounters.patientChanged(null, patient.getStatus(), null, patient.getNextVisitDate());
+            }
+            if (!patients.isEmpty()) {
+                changeTracker.changed(ChangeEntityType.PACIENTE, null);
+            }
+            changeTracker.caseloadChanged(patients.stream()
+                    .map(Patient::getProfessionalResponsibleId)
+                    .toArray(Long[]::new));
+            return patients.size();
+        }
+
+        private void reject(long line, List<String> record, String message) throws IOException {
+            job.errors.incrementAndGet();
+            List<Object> values = new ArrayList<>(record.size() + 2);
+            values.add(line);
+            values.add(message);
+            values.addAll(record);
+            CsvWriter.writeLine(errorWriter, values);
+        }
+    }
+
+    private static PatientRequest fromCsv(CsvReader csv, List<String> record) {
+        PatientRequest request = new PatientRequest();
+        request.setName(csv.get(record, "nome"));
+        request.setCpf(csv.get(record, "cpf"));
+        request.setBirthDate(CsvReader.parseDate(csv.get(record, "dataNascimento")));
+        request.setPhone(csv.get(record, "telefone"));
+        request.setSecondaryPhone(csv.get(record, "telefoneSecundario"));
+        request.setEmail(csv.get(record, "email"));
+        request.setAddressStreet(csv.get(record, "enderecoLogradouro"));
+        request.setAddressNumber(csv.get(record, "enderecoNumero"));
+        request.setAddressComplement(csv.get(record, "enderecoComplemento"));
+        request.setAddressNeighborhood(csv.get(record, "enderecoBairro"));
+        request.setAddressCity(csv.get(record, "enderecoCidade"));
+        request.setAddressState(csv.get(record, "enderecoEstado"));
+        request.setAddressZipCode(csv.get(record, "enderecoCep"));
+        request.setContractType(csv.get(record, "tipoContrato"));
+        request.setStatus(csv.get(record, "status"));
+        request.setNextVisitDate(CsvReader.parseDate(csv.get(record, "dataProximaVisita")));
+        request.setProfessionalResponsibleId(parseId(csv.get(record, "profissionalResponsavelId")));
+        request.setObservations(csv.get(record, "observacoes"));
+        return request;
+    }
+
+    private static Patient toPatient(PatientRequest request) {
+        return Patient.builder()
+                .name(request.getName())
+                .cpf(request.getCpf())
+                .birthDate(request.getBirthDate())
+                .phone(request.getPhone())
+                .secondaryPhone(request.getSecondaryPhone())
+                .email(request.getEmail())
+                .addressStreet(request.getAddressStreet())
+                .addressNumber(request.getAddressNumber())
+                .addressComplement(request.getAddressComplement())
+                .addressNeighborhood(request.getAddressNeighborhood())
+                .addressCity(request.getAddressCity())
+                .addressState(request.getAddressState())
+                .addressZipCode(request.getAddressZipCode())
+                .contractType(parseEnum(ContractType.class, "contract type", request.getContractType()))
+                .status(parseEnum(PatientStatus.class, "status", request.getStatus()))
+                .registrationDate(LocalDate.now())
+                .nextVisitDate(request.getNextVisitDate())
+                .professionalResponsibleId(request.getProfessionalResponsibleId())
+                .observations(request.getObservations())
+                .build();
+    }
+
+    private static Long parseId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid professional id: " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String label, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + value);
+        }
+    }
+
+    private ImportJobResponse toResponse(PatientImportJob job) {
+        int progress = job.getStatus() == ImportJobStatus.CONCLUIDO || job.getTotalBytes() == 0
+                ? 100
+                : (int) Math.min(100, job.getBytesRead() * 100 / job.getTotalBytes());
+        return ImportJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus().name())
+                .progress(progress)
+                .processed(job.getProcessed())
+                .imported(job.getImported())
+                .errors(job.getErrors())
+                .message(job.getMessage())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}", path, e);
+        }
+    }
+
+    /**
+     * Conta os bytes lidos do arquivo para calcular o progresso.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final PatientImportJob job;
+
+        CountingInputStream(InputStream in, PatientImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.bytesRead.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                job.bytesRead.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package dev.huggo.vntl_backend.service;
 
+import dev.huggo.vntl_backend.repository.PatientFilter;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
 import dev.huggo.vntl_backend.service.dto.PatientRequest;
 import dev.huggo.vntl_backend.service.dto.PatientResponse;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.List;
 
 public interface PatientService {
     PatientResponse create(PatientRequest request);
     PatientResponse update(Long id, PatientRequest request);
     PatientResponse getById(Long id);
-    List<PatientResponse> listAll(String status);
+    CursorPage<PatientResponse> list(PatientFilter filter, String cursor, int limit);
+    ChangeFeed<PatientResponse> changes(Instant since, int limit);
     void delete(Long id);
     PatientResponse updateLastVisit(Long id, LocalDate lastVisitDate);
 }
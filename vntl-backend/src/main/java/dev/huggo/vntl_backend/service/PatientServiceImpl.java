@@ -1,32 +1,47 @@
 package dev.huggo.vntl_backend.service;
 
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
 import dev.huggo.vntl_backend.domain.ContractType;
 import dev.huggo.vntl_backend.domain.DeviceStatus;
 import dev.huggo.vntl_backend.domain.Patient;
 import dev.huggo.vntl_backend.domain.PatientStatus;
+import dev.huggo.vntl_backend.domain.VisitType;
 import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.repository.KeysetCursor;
+import dev.huggo.vntl_backend.repository.PatientFilter;
+import dev.huggo.vntl_backend.repository.PatientListRow;
 import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
 import dev.huggo.vntl_backend.service.dto.PatientRequest;
 import dev.huggo.vntl_backend.service.dto.PatientResponse;
+import dev.huggo.vntl_backend.service.dto.VisitRequest;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PatientServiceImpl implements PatientService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final PatientRepository patientRepository;
     private final DeviceRepository deviceRepository;
+    private final DashboardCounters dashboardCounters;
+    private final DeviceHistoryWriter deviceHistoryWriter;
+    private final VisitService visitService;
+    private final ChangeTracker changeTracker;
 
     @Override
     @Transactional
@@ -35,13 +50,20 @@ public class PatientServiceImpl implements PatientService {
         applyRequestToEntity(request, patient);
         patient.setRegistrationDate(LocalDate.now());
 
+        Patient saved;
         try {
-            Patient saved = patientRepository.save(patient);
-            log.info("Created patient id={}", saved.getId());
-            return toResponse(saved);
+            saved = patientRepository.saveAndFlush(patient);
         } catch (DataIntegrityViolationException ex) {
-            throw new IllegalArgumentException("CPF already exists");
+            throw translateIntegrityViolation(ex);
         }
+
+        // Reserva o aparelho; se não estiver disponível a criação inteira é desfeita
+        updateDeviceAssociation(saved.getId(), null, saved.getDeviceId());
+        dashboardCounters.patientChanged(null, saved.getStatus(), null, saved.getNextVisitDate());
+        changeTracker.changed(ChangeEntityType.PACIENTE, saved.getId());
+        changeTracker.caseloadChanged(saved.getProfessionalResponsibleId());
+        log.info("Created patient id={}", saved.getId());
+        return toResponse(saved);
     }
 
     @Override
@@ -59,12 +81,30 @@ public class PatientServiceImpl implements PatientService {
 
         Long previousDeviceId = patient.getDeviceId();
         Long newDeviceId = request.getDeviceId();
+        Long previousProfessionalId = patient.getProfessionalResponsibleId();
+        String previousName = patient.getName();
+        PatientStatus previousStatus = patient.getStatus();
+        LocalDate previousNextVisit = patient.getNextVisitDate();
 
-        applyRequestToEntity(request, patient);
-        Patient saved = patientRepository.save(patient);
+        // Atualiza o status do aparelho antes de gravar o vínculo; falha com 409 se já estiver em uso
+        updateDeviceAssociation(id, previousDeviceId, newDeviceId);
 
-        // Atualiza o status do aparelho de acordo com a nova vinculação
-        updateDeviceAssociation(previousDeviceId, newDeviceId);
+        applyRequestToEntity(request, patient);
+        Patient saved;
+        try {
+            saved = patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateIntegrityViolation(ex);
+        }
+        dashboardCounters.patientChanged(previousStatus, saved.getStatus(), previousNextVisit, saved.getNextVisitDate());
+        changeTracker.changed(ChangeEntityType.PACIENTE, id);
+        if (!Objects.equals(previousProfessionalId, saved.getProfessionalResponsibleId())) {
+            changeTracker.caseloadChanged(previousProfessionalId, saved.getProfessionalResponsibleId());
+        }
+        // Aparelho trocado já foi marcado pela transição de status
+        if (!Objects.equals(previousName, saved.getName()) && Objects.equals(previousDeviceId, newDeviceId)) {
+            changeTracker.patientRenamed(newDeviceId);
+        }
         log.info("Updated patient id={}", saved.getId());
         return toResponse(saved);
     }
@@ -79,41 +119,25 @@ public class PatientServiceImpl implements PatientService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<PatientResponse> listAll(String status) {
-        List<Object[]> patientIdsWithNames;
-        
-        if (status == null || status.isBlank()) {
-            patientIdsWithNames = patientRepository.findAllPatientIdsWithProfessionalNames();
-        } else {
-            PatientStatus parsedStatus = PatientStatus.valueOf(status.toUpperCase(Locale.ROOT));
-            patientIdsWithNames = patientRepository.findPatientIdsWithProfessionalNamesByStatus(parsedStatus.name());
-        }
+    public CursorPage<PatientResponse> list(PatientFilter filter, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // Busca um registro a mais só para saber se existe próxima página
+        List<PatientListRow> rows = patientRepository.findPage(filter, KeysetCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<PatientListRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        PatientListRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<PatientResponse>builder()
+                .items(page.stream().map(this::toResponse).toList())
+                .nextCursor(hasMore ? new KeysetCursor(last.name(), last.id()).encode() : null)
+                .build();
+    }
 
-        // Criar mapas de patientId -> professionalName e patientId -> deviceType
-        Map<Long, String> professionalNamesMap = new HashMap<>();
-        Map<Long, String> deviceTypesMap = new HashMap<>();
-        List<Long> patientIds = patientIdsWithNames.stream()
-                .map(result -> {
-                    Long patientId = ((Number) result[0]).longValue();
-                    String professionalName = result[1] != null ? (String) result[1] : null;
-                    String deviceType = result[2] != null ? (String) result[2] : null;
-                    professionalNamesMap.put(patientId, professionalName);
-                    deviceTypesMap.put(patientId, deviceType);
-                    return patientId;
-                })
-                .collect(Collectors.toList());
-
-        // Buscar todos os pacientes em uma única query (batch)
-        List<Patient> patients = patientRepository.findAllById(patientIds);
-
-        // Mapear pacientes para responses com os nomes dos profissionais e tipos dos equipamentos
-        return patients.stream()
-                .map(patient -> {
-                    String professionalName = professionalNamesMap.get(patient.getId());
-                    String deviceType = deviceTypesMap.get(patient.getId());
-                    return toResponse(patient, professionalName, deviceType);
-                })
-                .collect(Collectors.toList());
+    @Override
+    public ChangeFeed<PatientResponse> changes(Instant since, int limit) {
+        return changeTracker.feed(ChangeEntityType.PACIENTE, since, limit,
+                patientRepository::findChangedSince, PatientListRow::updatedAt, this::toResponse);
     }
 
     @Override
@@ -124,21 +148,34 @@ public class PatientServiceImpl implements PatientService {
 
         // Se o paciente possui um aparelho vinculado, devolve-o para o estoque
         if (patient.getDeviceId() != null) {
-            updateDeviceAssociation(patient.getDeviceId(), null);
+            // O paciente deixa de existir, então a movimentação não o referencia
+            updateDeviceAssociation(null, patient.getDeviceId(), null);
         }
 
         patientRepository.delete(patient);
+        dashboardCounters.patientChanged(patient.getStatus(), null, patient.getNextVisitDate(), null);
+        changeTracker.deleted(ChangeEntityType.PACIENTE, id);
+        changeTracker.caseloadChanged(patient.getProfessionalResponsibleId());
         log.info("Deleted patient id={}", id);
     }
 
+    /**
+     * Mantido por compatibilidade: registra uma visita de rotina com o profissional responsável,
+     * e a última visita passa a ser derivada das visitas.
+     */
     @Override
     @Transactional
     public PatientResponse updateLastVisit(Long id, LocalDate lastVisitDate) {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
-        patient.setLastVisitDate(lastVisitDate);
-        Patient saved = patientRepository.save(patient);
-        return toResponse(saved);
+
+        VisitRequest visit = new VisitRequest();
+        visit.setPatientId(id);
+        visit.setProfessionalId(patient.getProfessionalResponsibleId());
+        visit.setVisitDate(lastVisitDate);
+        visit.setVisitType(VisitType.ROTINA.name());
+        visitService.create(visit);
+        return toResponse(patient);
     }
 
     private void applyRequestToEntity(PatientRequest request, Patient patient) {
@@ -167,33 +204,78 @@ public class PatientServiceImpl implements PatientService {
      * Atualiza o status dos aparelhos ao alterar o vínculo com o paciente.
      *
      * - Se {@code previousDeviceId} não for nulo e for diferente de {@code newDeviceId},
-     *   o aparelho anterior volta para o status ESTOQUE.
+     *   o aparelho anterior volta para o status ESTOQUE (se ainda estiver EM_USO).
      * - Se {@code newDeviceId} não for nulo e for diferente de {@code previousDeviceId},
-     *   o novo aparelho passa para o status EM_USO.
+     *   o novo aparelho passa de ESTOQUE para EM_USO.
+     *
+     * As transições são UPDATEs condicionais: só um de vários gerentes vinculando o mesmo
+     * aparelho ao mesmo tempo consegue a reserva; os demais recebem 409 e a transação é desfeita.
+     * Vínculos com aparelhos diferentes não se bloqueiam.
      */
-    private void updateDeviceAssociation(Long previousDeviceId, Long newDeviceId) {
+    private void updateDeviceAssociation(Long patientId, Long previousDeviceId, Long newDeviceId) {
+        LocalDateTime now = LocalDateTime.now();
         if (previousDeviceId != null && !previousDeviceId.equals(newDeviceId)) {
-            deviceRepository.findById(previousDeviceId)
-                    .ifPresent(device -> {
-                        device.setStatus(DeviceStatus.ESTOQUE);
-                        deviceRepository.save(device);
-                    });
+            if (deviceRepository.transitionStatus(previousDeviceId, DeviceStatus.EM_USO, DeviceStatus.ESTOQUE, now) == 1) {
+                dashboardCounters.deviceChanged(DeviceStatus.EM_USO, DeviceStatus.ESTOQUE);
+                changeTracker.changed(ChangeEntityType.APARELHO, previousDeviceId);
+                deviceHistoryWriter.record(previousDeviceId, patientId,
+                        DeviceStatus.EM_USO, DeviceStatus.ESTOQUE, "Devolvido ao estoque");
+            }
         }
 
         if (newDeviceId != null && !newDeviceId.equals(previousDeviceId)) {
-            deviceRepository.findById(newDeviceId)
-                    .ifPresent(device -> {
-                        device.setStatus(DeviceStatus.EM_USO);
-                        deviceRepository.save(device);
-                    });
+            if (deviceRepository.transitionStatus(newDeviceId, DeviceStatus.ESTOQUE, DeviceStatus.EM_USO, now) == 0) {
+                if (!deviceRepository.existsById(newDeviceId)) {
+                    throw new IllegalArgumentException("Device not found");
+                }
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Device is not available");
+            }
+            dashboardCounters.deviceChanged(DeviceStatus.ESTOQUE, DeviceStatus.EM_USO);
+            changeTracker.changed(ChangeEntityType.APARELHO, newDeviceId);
+            deviceHistoryWriter.record(newDeviceId, patientId,
+                    DeviceStatus.ESTOQUE, DeviceStatus.EM_USO, "Vinculado ao paciente");
         }
     }
 
-    private PatientResponse toResponse(Patient patient) {
-        return toResponse(patient, null, null);
+    private RuntimeException translateIntegrityViolation(DataIntegrityViolationException ex) {
+        String message = String.valueOf(ex.getMostSpecificCause().getMessage());
+        if (message.contains("uq_patients_device")) {
+            return new ResponseStatusException(HttpStatus.CONFLICT, "Device is already linked to another patient");
+        }
+        return new IllegalArgumentException("CPF already exists");
     }
 
-    private PatientResponse toResponse(Patient patient, String professionalName, String deviceType) {
+    private PatientResponse toResponse(PatientListRow row) {
+        return PatientResponse.builder()
+                .id(row.id())
+                .name(row.name())
+                .cpf(row.cpf())
+                .birthDate(row.birthDate())
+                .phone(row.phone())
+                .secondaryPhone(row.secondaryPhone())
+                .email(row.email())
+                .addressStreet(row.addressStreet())
+                .addressNumber(row.addressNumber())
+                .addressComplement(row.addressComplement())
+                .addressNeighborhood(row.addressNeighborhood())
+                .addressCity(row.addressCity())
+                .addressState(row.addressState())
+                .addressZipCode(row.addressZipCode())
+                .contractType(row.contractType().name())
+                .status(row.status().name())
+                .registrationDate(row.registrationDate())
+                .lastVisitDate(row.lastVisitDate())
+                .nextVisitDate(row.nextVisitDate())
+                .deviceId(row.deviceId())
+                .deviceType(row.deviceType())
+                .deviceAssetNumber(row.deviceAssetNumber())
+                .professionalResponsibleId(row.professionalResponsibleId())
+                .professionalResponsibleName(row.professionalResponsibleName())
+                .observations(row.observations())
+                .build();
+    }
+
+    private PatientResponse toResponse(Patient patient) {
         return PatientResponse.builder()
                 .id(patient.getId())
                 .name(patient.getName())
@@ -215,9 +297,7 @@ public class PatientServiceImpl implements PatientService {
                 .lastVisitDate(patient.getLastVisitDate())
                 .nextVisitDate(patient.getNextVisitDate())
                 .deviceId(patient.getDeviceId())
-                .deviceType(deviceType)
                 .professionalResponsibleId(patient.getProfessionalResponsibleId())
-                .professionalResponsibleName(professionalName)
                 .observations(patient.getObservations())
                 .build();
     }
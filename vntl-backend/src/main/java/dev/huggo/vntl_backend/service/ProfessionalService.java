@@ -1,16 +1,27 @@
 package dev.huggo.vntl_backend.service;
 
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.LookupItem;
 import dev.huggo.vntl_backend.service.dto.ProfessionalRequest;
 import dev.huggo.vntl_backend.service.dto.ProfessionalResponse;
+import dev.huggo.vntl_backend.service.dto.ReassignPatientsRequest;
+import dev.huggo.vntl_backend.service.dto.ReassignPatientsResponse;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ProfessionalService {
     ProfessionalResponse create(ProfessionalRequest request);
     ProfessionalResponse update(Long id, ProfessionalRequest request);
     ProfessionalResponse getById(Long id);
-    List<ProfessionalResponse> listAll();
+    List<ProfessionalResponse> listAll(boolean includePatientIds);
+    List<Map<String, Object>> listAll(Collection<String> fields);
+    List<LookupItem> lookup(String query, int limit);
+    ChangeFeed<ProfessionalResponse> changes(Instant since, int limit);
     void delete(Long id);
     List<Long> listPatientIds(Long professionalId);
     void assignPatient(Long professionalId, Long patientId);
     void unassignPatient(Long professionalId, Long patientId);
+    ReassignPatientsResponse reassignPatients(Long sourceProfessionalId, ReassignPatientsRequest request);
 }
@@ -1,16 +1,38 @@
 package dev.huggo.vntl_backend.service;
 
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.PatientStatus;
 import dev.huggo.vntl_backend.domain.Professional;
+import dev.huggo.vntl_backend.repository.PatientFilter;
 import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.ProfessionalCaseloadRow;
 import dev.huggo.vntl_backend.repository.ProfessionalRepository;
+import dev.huggo.vntl_backend.repository.ProjectedRow;
+import dev.huggo.vntl_backend.service.dto.ChangeFeed;
+import dev.huggo.vntl_backend.service.dto.LookupItem;
 import dev.huggo.vntl_backend.service.dto.ProfessionalRequest;
 import dev.huggo.vntl_backend.service.dto.ProfessionalResponse;
+import dev.huggo.vntl_backend.service.dto.ReassignPatientsRequest;
+import dev.huggo.vntl_backend.service.dto.ReassignPatientsResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -18,8 +40,31 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class ProfessionalServiceImpl implements ProfessionalService {
 
+    private static final int MAX_LOOKUP_SIZE = 500;
+
     private final ProfessionalRepository professionalRepository;
     private final PatientRepository patientRepository;
+    private final DashboardCounters dashboardCounters;
+    private final ChangeTracker changeTracker;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${cache.entities.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${cache.entities.list-max-size:200}")
+    private long listCacheMaxSize;
+
+    @Value("${cache.entities.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    private EntityCache<ProfessionalResponse> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new EntityCache<>("professionals", cacheMaxSize, listCacheMaxSize, cacheTtl, meterRegistry, transactionManager);
+        changeTracker.onCommitted(ChangeEntityType.PROFISSIONAL, cache::invalidate);
+    }
 
     @Override
     @Transactional
@@ -28,6 +73,8 @@ public class ProfessionalServiceImpl implements ProfessionalService {
         apply(request, professional);
         try {
             Professional saved = professionalRepository.save(professional);
+            dashboardCounters.professionalChanged(null, saved.getActive());
+            changeTracker.changed(ChangeEntityType.PROFISSIONAL, saved.getId());
             log.info("Created professional id={}", saved.getId());
             return toResponse(saved);
         } catch (DataIntegrityViolationException e) {
@@ -45,26 +92,64 @@ public class ProfessionalServiceImpl implements ProfessionalService {
                 .filter(p -> !p.getId().equals(id))
                 .ifPresent(p -> { throw new IllegalArgumentException("CPF already exists"); });
 
+        Boolean previousActive = professional.getActive();
+        String previousName = professional.getName();
         apply(request, professional);
         Professional saved = professionalRepository.save(professional);
+        dashboardCounters.professionalChanged(previousActive, saved.getActive());
+        changeTracker.changed(ChangeEntityType.PROFISSIONAL, id);
+        if (!Objects.equals(previousName, saved.getName())) {
+            changeTracker.professionalRenamed(id);
+        }
         log.info("Updated professional id={}", saved.getId());
         return toResponse(saved);
     }
 
+    // Leituras em cache ficam sem @Transactional: um acerto não abre transação nem ocupa conexão,
+    // e cada carga é uma única consulta, numa transação somente leitura aberta pelo EntityCache
+
     @Override
-    @Transactional(readOnly = true)
     public ProfessionalResponse getById(Long id) {
-        Professional professional = professionalRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Professional not found"));
-        return toResponse(professional);
+        ProfessionalResponse response = cache.get(id,
+                key -> professionalRepository.findCaseloadById(key).map(this::toResponse).orElse(null));
+        if (response == null) {
+            throw new IllegalArgumentException("Professional not found");
+        }
+        return response;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<ProfessionalResponse> listAll() {
-        return professionalRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public List<ProfessionalResponse> listAll(boolean includePatientIds) {
+        return cache.list(Arrays.asList("all", includePatientIds),
+                () -> professionalRepository.findAllCaseloads(includePatientIds).stream()
+                        .map(this::toResponse)
+                        .toList());
+    }
+
+    @Override
+    public List<Map<String, Object>> listAll(Collection<String> fields) {
+        return cache.list(Arrays.asList("fields", List.copyOf(fields)),
+                () -> professionalRepository.findAllProjected(fields).stream()
+                        .map(ProjectedRow::fields)
+                        .toList());
+    }
+
+    @Override
+    public List<LookupItem> lookup(String query, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_LOOKUP_SIZE);
+        return cache.list(Arrays.asList("lookup", query, size),
+                () -> professionalRepository.findActiveLookup(query, size).stream()
+                        .map(row -> LookupItem.builder()
+                                .id(row.id())
+                                .label(row.label())
+                                .build())
+                        .toList());
+    }
+
+    @Override
+    public ChangeFeed<ProfessionalResponse> changes(Instant since, int limit) {
+        return changeTracker.feed(ChangeEntityType.PROFISSIONAL, since, limit,
+                professionalRepository::findChangedSince, ProfessionalCaseloadRow::updatedAt, this::toResponse);
     }
 
     @Override
@@ -73,20 +158,22 @@ public class ProfessionalServiceImpl implements ProfessionalService {
         Professional professional = professionalRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Professional not found"));
 
-        // Unassign patients linked to this professional
-        patientRepository.findByProfessionalResponsibleId(id)
-                .forEach(p -> p.setProfessionalResponsibleId(null));
+        // Unassign patients linked to this professional (single set-based UPDATE)
+        int unassigned = patientRepository.reassign(id, null, null, null);
 
         professionalRepository.delete(professional);
-        log.info("Deleted professional id={}", id);
+        dashboardCounters.professionalChanged(professional.getActive(), null);
+        changeTracker.deleted(ChangeEntityType.PROFISSIONAL, id);
+        if (unassigned > 0) {
+            changeTracker.changed(ChangeEntityType.PACIENTE, null);
+        }
+        log.info("Deleted professional id={} unassignedPatients={}", id, unassigned);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Long> listPatientIds(Long professionalId) {
-        return patientRepository.findByProfessionalResponsibleId(professionalId).stream()
-                .map(p -> p.getId())
-                .collect(Collectors.toList());
+        return patientRepository.findIdsByProfessionalResponsibleId(professionalId);
     }
 
     @Override
@@ -97,7 +184,12 @@ public class ProfessionalServiceImpl implements ProfessionalService {
 
         var patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        Long previousProfessionalId = patient.getProfessionalResponsibleId();
         patient.setProfessionalResponsibleId(professionalId);
+        if (!professionalId.equals(previousProfessionalId)) {
+            changeTracker.changed(ChangeEntityType.PACIENTE, patientId);
+            changeTracker.caseloadChanged(previousProfessionalId, professionalId);
+        }
     }
 
     @Override
@@ -108,7 +200,49 @@ public class ProfessionalServiceImpl implements ProfessionalService {
 
         if (professionalId.equals(patient.getProfessionalResponsibleId())) {
             patient.setProfessionalResponsibleId(null);
+            changeTracker.changed(ChangeEntityType.PACIENTE, patientId);
+            changeTracker.caseloadChanged(professionalId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public ReassignPatientsResponse reassignPatients(Long sourceProfessionalId, ReassignPatientsRequest request) {
+        Long targetProfessionalId = request.getTargetProfessionalId();
+        if (sourceProfessionalId.equals(targetProfessionalId)) {
+            throw new IllegalArgumentException("Source and target professional must differ");
         }
+        if (targetProfessionalId != null && !professionalRepository.existsById(targetProfessionalId)) {
+            throw new IllegalArgumentException("Professional not found");
+        }
+
+        Set<Long> patientIds = request.getPatientIds() == null
+                ? Set.of()
+                : new LinkedHashSet<>(request.getPatientIds());
+        PatientFilter filter = new PatientFilter(
+                request.getStatus() == null ? null : PatientStatus.valueOf(request.getStatus().toUpperCase(Locale.ROOT)),
+                request.getContractType() == null ? null : ContractType.valueOf(request.getContractType().toUpperCase(Locale.ROOT)),
+                null,
+                request.getCity(),
+                null,
+                null);
+
+        int updated = patientRepository.reassign(sourceProfessionalId, targetProfessionalId, patientIds, filter);
+        if (updated > 0) {
+            changeTracker.changed(ChangeEntityType.PACIENTE, null);
+            changeTracker.caseloadChanged(sourceProfessionalId, targetProfessionalId);
+        }
+        log.info("Reassigned {} patients from professional id={} to id={}",
+                updated, sourceProfessionalId, targetProfessionalId);
+
+        Integer requested = patientIds.isEmpty() ? null : patientIds.size();
+        return ReassignPatientsResponse.builder()
+                .sourceProfessionalId(sourceProfessionalId)
+                .targetProfessionalId(targetProfessionalId)
+                .requested(requested)
+                .updated(updated)
+                .skipped(requested == null ? null : requested - updated)
+                .build();
     }
 
     private void apply(ProfessionalRequest request, Professional professional) {
@@ -121,8 +255,24 @@ public class ProfessionalServiceImpl implements ProfessionalService {
         professional.setObservations(request.getObservations());
     }
 
+    private ProfessionalResponse toResponse(ProfessionalCaseloadRow row) {
+        return ProfessionalResponse.builder()
+                .id(row.id())
+                .name(row.name())
+                .cpf(row.cpf())
+                .phone(row.phone())
+                .secondaryPhone(row.secondaryPhone())
+                .email(row.email())
+                .patientIds(row.patientIds())
+                .patientsCount((int) row.patientsCount())
+                .createdAt(row.createdAt())
+                .active(row.active())
+                .observations(row.observations())
+                .build();
+    }
+
     private ProfessionalResponse toResponse(Professional professional) {
-        var patients = patientRepository.findByProfessionalResponsibleId(professional.getId());
+        List<Long> patientIds = patientRepository.findIdsByProfessionalResponsibleId(professional.getId());
         return ProfessionalResponse.builder()
                 .id(professional.getId())
                 .name(professional.getName())
@@ -130,8 +280,8 @@ public class ProfessionalServiceImpl implements ProfessionalService {
                 .phone(professional.getPhone())
                 .secondaryPhone(professional.getSecondaryPhone())
                 .email(professional.getEmail())
-                .patientIds(patients.stream().map(p -> p.getId()).toList())
-                .patientsCount(patients.size())
+                .patientIds(patientIds)
+                .patientsCount(patientIds.size())
                 .createdAt(professional.getCreatedAt())
                 .active(professional.getActive())
                 .observations(professional.getObservations())
@@ -0,0 +1,186 @@
+package dev.huggo.vntl_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.ProfessionalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Versões usadas como ETag nos GETs condicionais de pacientes, aparelhos e profissionais.
+ *
+ * A versão de um registro é o seu {@code updated_at}, lido pela chave primária sem carregar a entidade;
+ * escritas que mudam dados exibidos em outro recurso já tocam essas linhas ({@link ChangeTracker}).
+ * Cada coleção tem um contador numa sequência do Postgres, incrementado depois do commit de toda
+ * transação que alterou a coleção: uma versão nunca é emitida junto com dados anteriores a ela,
+ * e todas as instâncias enxergam o mesmo contador.
+ *
+ * As versões ficam num cache local, para que a revalidação de um recurso inalterado não vá ao banco.
+ * Elas são invalidadas depois dos caches de dados ({@link EntityCache}): entre uma coisa e outra, um
+ * cliente pode receber dado novo com ETag antigo, que só custa uma revalidação a mais, nunca o contrário.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResourceVersions {
+
+    private static final Map<ChangeEntityType, String> SEQUENCES = Map.of(
+            ChangeEntityType.PACIENTE, "patients_version_seq",
+            ChangeEntityType.APARELHO, "devices_version_seq",
+            ChangeEntityType.PROFISSIONAL, "professionals_version_seq");
+
+    private final DataSource dataSource;
+    private final PatientRepository patientRepository;
+    private final DeviceRepository deviceRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+    private final Map<ChangeEntityType, EntityCache<String>> tags = new EnumMap<>(ChangeEntityType.class);
+
+    @Value("${cache.entities.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${cache.entities.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    private JdbcTemplate jdbcTemplate;
+    private Cache<ChangeEntityType, Long> collectionVersions;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (ChangeEntityType type : ChangeEntityType.values()) {
+            tags.put(type, new EntityCache<>("etags." + type.name().toLowerCase(Locale.ROOT), cacheMaxSize, 0, cacheTtl, meterRegistry, transactionManager));
+        }
+        collectionVersions = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, collectionVersions, "etags.collections");
+    }
+
+    /**
+     * @return ETag do paciente, ou {@code null} se ele não existir
+     */
+    public String patientTag(Long id) {
+        return tags.get(ChangeEntityType.PACIENTE).get(id, key -> patientRepository.findUpdatedAtById(key)
+                .map(version -> tag(ChangeEntityType.PACIENTE, key, version))
+                .orElse(null));
+    }
+
+    public String deviceTag(Long id) {
+        return tags.get(ChangeEntityType.APARELHO).get(id, key -> deviceRepository.findUpdatedAtById(key)
+                .map(version -> tag(ChangeEntityType.APARELHO, key, version))
+                .orElse(null));
+    }
+
+    public String professionalTag(Long id) {
+        return tags.get(ChangeEntityType.PROFISSIONAL).get(id, key -> professionalRepository.findUpdatedAtById(key)
+                .map(version -> tag(ChangeEntityType.PROFISSIONAL, key, version))
+                .orElse(null));
+    }
+
+    /**
+     * ETag das listagens da coleção; vale para qualquer filtro ou página, já que muda a cada escrita.
+     */
+    public String collectionTag(ChangeEntityType type) {
+        // Sequência recém-criada tem last_value 1 antes do primeiro nextval
+        Long version = collectionVersions.get(type, key -> jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM " + SEQUENCES.get(key), Long.class));
+        return "\"" + type.name().toLowerCase(Locale.ROOT) + "-v" + version + "\"";
+    }
+
+    /**
+     * Incrementa o contador da coleção e descarta a versão do registro após o commit da transação atual
+     * (imediatamente se não houver).
+     *
+     * @param id {@code null} quando várias linhas mudaram de uma vez
+     */
+    public void changed(ChangeEntityType type, Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit(Set.of(new Change(type, id)));
+            return;
+        }
+        Set<Change> pending = TransactionEffects.buffer(this, LinkedHashSet::new, changes ->
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        ResourceVersions.this.afterCommit(changes);
+                    }
+                });
+        pending.add(new Change(type, id));
+    }
+
+    /**
+     * Descarta a versão do registro e a da coleção após um aviso de outra instância ({@link InvalidationBus}),
+     * que já incrementou o contador; a próxima leitura busca o valor no banco.
+     *
+     * @param id {@code null} para descartar todas as versões do tipo
+     */
+    public void invalidate(ChangeEntityType type, Long id) {
+        tags.get(type).invalidate(id);
+        collectionVersions.invalidate(type);
+    }
+
+    private void afterCommit(Set<Change> changes) {
+        Set<ChangeEntityType> types = EnumSet.noneOf(ChangeEntityType.class);
+        for (Change change : changes) {
+            types.add(change.type());
+            tags.get(change.type()).invalidate(change.id());
+        }
+        bump(types);
+    }
+
+    private void bump(Set<ChangeEntityType> types) {
+        // Conexão própria: no afterCommit a conexão da transação ainda está vinculada à thread
+        // e um JdbcTemplate a reutilizaria. nextval não depende de commit.
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (ChangeEntityType type : types) {
+                try (ResultSet rs = statement.executeQuery("SELECT nextval('" + SEQUENCES.get(type) + "')")) {
+                    rs.next();
+                    // Commits concorrentes podem chegar fora de ordem: fica o maior valor
+                    collectionVersions.asMap().merge(type, rs.getLong(1), Math::max);
+                }
+            }
+        } catch (SQLException e) {
+            // Sem o incremento, clientes podem revalidar listas antigas até a próxima escrita
+            log.error("Failed to bump collection versions {}", types, e);
+            types.forEach(collectionVersions::invalidate);
+        }
+    }
+
+    private record Change(ChangeEntityType type, Long id) {
+    }
+
+    private static String tag(ChangeEntityType type, Long id, LocalDateTime version) {
+        long micros = version.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + version.getNano() / 1_000;
+        return "\"" + type.name().toLowerCase(Locale.ROOT) + "-" + id + "-" + micros + "\"";
+    }
+}
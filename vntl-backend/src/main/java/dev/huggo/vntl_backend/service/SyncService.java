@@ -0,0 +1,11 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.service.dto.SyncRequest;
+import dev.huggo.vntl_backend.service.dto.SyncResponse;
+
+public interface SyncService {
+    /**
+     * @param canDelete se o usuário pode excluir visitas (mesma regra de DELETE /api/visits/{id})
+     */
+    SyncResponse sync(SyncRequest request, String username, boolean canDelete);
+}
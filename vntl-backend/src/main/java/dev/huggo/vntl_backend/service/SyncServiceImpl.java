@@ -0,0 +1,377 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.domain.SyncOperationType;
+import dev.huggo.vntl_backend.domain.SyncReceipt;
+import dev.huggo.vntl_backend.domain.Visit;
+import dev.huggo.vntl_backend.domain.VisitType;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.ProfessionalRepository;
+import dev.huggo.vntl_backend.repository.SyncReceiptRepository;
+import dev.huggo.vntl_backend.repository.VisitListRow;
+import dev.huggo.vntl_backend.repository.VisitRepository;
+import dev.huggo.vntl_backend.service.dto.SyncItemResult;
+import dev.huggo.vntl_backend.service.dto.SyncOperationRequest;
+import dev.huggo.vntl_backend.service.dto.SyncPatientDates;
+import dev.huggo.vntl_backend.service.dto.SyncRequest;
+import dev.huggo.vntl_backend.service.dto.SyncResponse;
+import dev.huggo.vntl_backend.service.dto.VisitRequest;
+import dev.huggo.vntl_backend.service.dto.VisitResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sincronização em lote das visitas registradas offline pelos técnicos.
+ *
+ * O lote inteiro roda numa transação; cada operação roda num savepoint JDBC próprio
+ * ({@link #inSavepoint}), de modo que uma operação recusada não desfaz as outras. Um erro
+ * de banco marca a transação inteira para rollback (Hibernate); nesse caso o lote é refeito
+ * sem a operação que falhou.
+ * A chave de idempotência (única por usuário) é gravada no mesmo savepoint da operação: reenviar
+ * o lote depois de uma queda de conexão devolve DUPLICADO para o que já foi aplicado.
+ *
+ * Alterações do servidor posteriores ao {@code registradoEm} do cliente geram CONFLITO,
+ * com o estado atual da visita no resultado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyncServiceImpl implements SyncService {
+
+    static final String APPLIED = "APLICADO";
+    static final String DUPLICATE = "DUPLICADO";
+    static final String CONFLICT = "CONFLITO";
+    static final String ERROR = "ERRO";
+
+    private final VisitService visitService;
+    private final VisitRepository visitRepository;
+    private final PatientRepository patientRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final SyncReceiptRepository syncReceiptRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sync.delta-limit:500}")
+    private int deltaLimit;
+
+    // Margem para não perder alterações de transações que confirmaram depois da marca anterior
+    @Value("${sync.delta-overlap:PT5S}")
+    private Duration deltaOverlap;
+
+    @Value("${sync.receipt-retention:P30D}")
+    private Duration receiptRetention;
+
+    private TransactionTemplate batchTransaction;
+
+    @PostConstruct
+    void init() {
+        batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public SyncResponse sync(SyncRequest request, String username, boolean canDelete) {
+        // Operações que derrubaram a transação numa tentativa anterior, com a mensagem do erro
+        Map<String, String> failed = new HashMap<>();
+        while (true) {
+            try {
+                return batchTransaction.execute(status -> apply(request, username, canDelete, failed, status));
+            } catch (BatchRollbackException e) {
+                log.warn("Sync operation {} rolled back the batch, retrying without it", e.key);
+                failed.put(e.key, e.getMessage());
+            }
+        }
+    }
+
+    private SyncResponse apply(SyncRequest request, String username, boolean canDelete,
+                               Map<String, String> failed, TransactionStatus status) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<SyncOperationRequest> operations = request.getOperations();
+
+        // Todas as chaves do lote numa única consulta (nenhuma se o lote só pede o delta);
+        // cada cliente gera as suas, então só valem por usuário
+        Map<String, SyncReceipt> receipts = operations.isEmpty() ? Map.of() : syncReceiptRepository
+                .findByUsernameAndIdempotencyKeyIn(username, operations.stream().map(SyncOperationRequest::getKey).toList())
+                .stream()
+                .collect(Collectors.toMap(SyncReceipt::getIdempotencyKey, Function.identity()));
+
+        List<SyncItemResult> results = new ArrayList<>(operations.size());
+        Set<Long> affectedPatients = new LinkedHashSet<>();
+        Map<String, SyncItemResult> seenInBatch = new HashMap<>();
+        for (SyncOperationRequest operation : operations) {
+            SyncReceipt receipt = receipts.get(operation.getKey());
+            if (receipt != null || seenInBatch.containsKey(operation.getKey())) {
+                Long visitId = receipt != null ? receipt.getVisitId() : seenInBatch.get(operation.getKey()).getVisitId();
+                results.add(result(operation, DUPLICATE, visitId, null));
+                continue;
+            }
+            SyncItemResult result = failed.containsKey(operation.getKey())
+                    ? result(operation, ERROR, operation.getVisitId(), failed.get(operation.getKey()))
+                    : applyOne(operation, username, canDelete, affectedPatients, status);
+            seenInBatch.put(operation.getKey(), result);
+            results.add(result);
+        }
+
+        // Delta: visitas alteradas desde a última sincronização, limitado a sync.delta-limit
+        List<VisitResponse> delta = List.of();
+        Instant syncedAt = startedAt.atZone(ZoneId.systemDefault()).toInstant();
+        boolean truncated = false;
+        if (request.getSince() != null) {
+            LocalDateTime since = LocalDateTime.ofInstant(request.getSince().minus(deltaOverlap), ZoneId.systemDefault());
+            List<VisitListRow> rows = visitRepository.findChangedSince(since, request.getProfessionalId(), deltaLimit + 1);
+            truncated = rows.size() > deltaLimit;
+            if (truncated) {
+                rows = rows.subList(0, deltaLimit);
+                // A próxima página começa na última visita enviada: soma a margem que será descontada,
+                // senão um bloco de mais de sync.delta-limit alterações dentro da margem nunca avançaria
+                syncedAt = rows.get(rows.size() - 1).updatedAt().atZone(ZoneId.systemDefault()).toInstant().plus(deltaOverlap);
+            }
+            delta = rows.stream().map(SyncServiceImpl::toResponse).toList();
+        }
+
+        List<SyncPatientDates> patients = patientRepository.findAllById(affectedPatients).stream()
+                .map(p -> SyncPatientDates.builder()
+                        .id(p.getId())
+                        .lastVisitDate(p.getLastVisitDate())
+                        .nextVisitDate(p.getNextVisitDate())
+                        .build())
+                .toList();
+
+        log.info("Sync by {}: {} operations, {} visits in delta", username, operations.size(), delta.size());
+        return SyncResponse.builder()
+                .results(results)
+                .visits(delta)
+                .patients(patients)
+                .syncedAt(syncedAt)
+                .truncated(truncated)
+                .build();
+    }
+
+    private SyncItemResult applyOne(SyncOperationRequest operation, String username, boolean canDelete,
+                                    Set<Long> affectedPatients, TransactionStatus status) {
+        SyncOperationType type;
+        try {
+            type = SyncOperationType.valueOf(operation.getType().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return result(operation, ERROR, null, "Unknown operation type: " + operation.getType());
+        }
+        if (type == SyncOperationType.EXCLUIR_VISITA && !canDelete) {
+            return result(operation, ERROR, operation.getVisitId(), "Not allowed to delete visits");
+        }
+
+        try {
+            return inSavepoint(() -> {
+                Visit current = null;
+                if (type == SyncOperationType.ATUALIZAR_VISITA || type == SyncOperationType.EXCLUIR_VISITA) {
+                    if (operation.getVisitId() == null) {
+                        throw new IllegalArgumentException("visitaId is required");
+                    }
+                    current = visitRepository.findById(operation.getVisitId()).orElse(null);
+                    SyncItemResult conflict = checkConflict(operation, current);
+                    if (conflict != null) {
+                        return conflict;
+                    }
+                }
+
+                Long visitId = operation.getVisitId();
+                Long patientId;
+                switch (type) {
+                    case CRIAR_VISITA, ULTIMA_VISITA -> {
+                        VisitResponse created = visitService.create(validated(toVisitRequest(type, operation)));
+                        visitId = created.getId();
+                        patientId = created.getPatientId();
+                    }
+                    case ATUALIZAR_VISITA -> {
+                        affectedPatients.add(current.getPatientId());
+                        patientId = visitService.update(visitId, validated(operation.getVisit())).getPatientId();
+                    }
+                    case EXCLUIR_VISITA -> {
+                        patientId = current.getPatientId();
+                        visitService.delete(visitId);
+                    }
+                    default -> throw new IllegalStateException("Unhandled operation " + type);
+                }
+
+                // persist e não save: com id atribuído, save faria merge e sobrescreveria um comprovante concorrente
+                entityManager.persist(SyncReceipt.builder()
+                        .idempotencyKey(operation.getKey())
+                        .username(username)
+                        .operationType(type)
+                        .visitId(visitId)
+                        .patientId(patientId)
+                        .build());
+                entityManager.flush();
+                affectedPatients.add(patientId);
+                return result(operation, APPLIED, visitId, null);
+            });
+        } catch (IllegalArgumentException | PersistenceException | DataAccessException e) {
+            if (status.isRollbackOnly()) {
+                throw new BatchRollbackException(operation.getKey(), e);
+            }
+            return result(operation, ERROR, operation.getVisitId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Savepoint feito direto na conexão da transação: o {@code JpaTransactionManager} não oferece
+     * {@code PROPAGATION_NESTED} com o dialeto do Hibernate. Se a operação falhar, o banco volta ao
+     * savepoint e o contexto de persistência, que não acompanha esse rollback, é descartado
+     * (as operações anteriores já foram gravadas com flush). Os efeitos pós-commit que a operação
+     * já tinha registrado (dashboard, versões, avisos) são descartados junto ({@link TransactionEffects}).
+     */
+    private <T> T inSavepoint(Supplier<T> work) {
+        Session session = entityManager.unwrap(Session.class);
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        try {
+            T result = TransactionEffects.discardOnFailure(work);
+            session.doWork(connection -> connection.releaseSavepoint(savepoint));
+            return result;
+        } catch (RuntimeException e) {
+            session.doWork(connection -> connection.rollback(savepoint));
+            entityManager.clear();
+            throw e;
+        }
+    }
+
+    /**
+     * Visita inexistente ou alterada no servidor depois de {@code registradoEm}.
+     */
+    private SyncItemResult checkConflict(SyncOperationRequest operation, Visit current) {
+        if (current == null) {
+            return result(operation, CONFLICT, operation.getVisitId(), "Visit no longer exists");
+        }
+        if (operation.getRecordedAt() != null && current.getUpdatedAt() != null
+                && current.getUpdatedAt().isAfter(LocalDateTime.ofInstant(operation.getRecordedAt(), ZoneId.systemDefault()))) {
+            return SyncItemResult.builder()
+                    .key(operation.getKey())
+                    .status(CONFLICT)
+                    .visitId(current.getId())
+                    .message("Visit changed on the server after the client edit")
+                    .visit(visitService.getById(current.getId()))
+                    .build();
+        }
+        return null;
+    }
+
+    private VisitRequest toVisitRequest(SyncOperationType type, SyncOperationRequest operation) {
+        if (type != SyncOperationType.ULTIMA_VISITA) {
+            return operation.getVisit();
+        }
+        // Mesmo efeito de PATCH /api/patients/{id}/last-visit
+        VisitRequest visit = new VisitRequest();
+        visit.setPatientId(operation.getPatientId());
+        visit.setVisitDate(operation.getVisitDate());
+        visit.setVisitType(VisitType.ROTINA.name());
+        if (operation.getPatientId() != null) {
+            patientRepository.findById(operation.getPatientId())
+                    .ifPresent(patient -> visit.setProfessionalId(patient.getProfessionalResponsibleId()));
+        }
+        return visit;
+    }
+
+    /**
+     * Repete aqui as validações do {@link VisitService}: uma exceção lançada dentro do serviço
+     * marcaria a transação do lote inteiro como rollback-only, e não só o savepoint da operação.
+     */
+    private VisitRequest validated(VisitRequest visit) {
+        if (visit == null) {
+            throw new IllegalArgumentException("visita is required");
+        }
+        if (visit.getPatientId() == null || visit.getVisitDate() == null) {
+            throw new IllegalArgumentException("pacienteId and dataVisita are required");
+        }
+        if (!patientRepository.existsById(visit.getPatientId())) {
+            throw new IllegalArgumentException("Patient not found");
+        }
+        if (visit.getProfessionalId() != null && !professionalRepository.existsById(visit.getProfessionalId())) {
+            throw new IllegalArgumentException("Professional not found");
+        }
+        if (visit.getStartTime() != null && visit.getEndTime() != null
+                && visit.getEndTime().isBefore(visit.getStartTime())) {
+            throw new IllegalArgumentException("End time must not be before start time");
+        }
+        if (visit.getVisitType() != null && !visit.getVisitType().isBlank()) {
+            try {
+                VisitType.valueOf(visit.getVisitType().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid visit type: " + visit.getVisitType());
+            }
+        }
+        return visit;
+    }
+
+    @Scheduled(cron = "${sync.receipt-cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeReceipts() {
+        int deleted = syncReceiptRepository.deleteAppliedBefore(LocalDateTime.now().minus(receiptRetention));
+        if (deleted > 0) {
+            log.info("Removed {} expired sync receipts", deleted);
+        }
+    }
+
+    private static SyncItemResult result(SyncOperationRequest operation, String status, Long visitId, String message) {
+        return SyncItemResult.builder()
+                .key(operation.getKey())
+                .status(status)
+                .visitId(visitId)
+                .message(message)
+                .build();
+    }
+
+    private static VisitResponse toResponse(VisitListRow row) {
+        return VisitResponse.builder()
+                .id(row.id())
+                .patientId(row.patientId())
+                .patientName(row.patientName())
+                .professionalId(row.professionalId())
+                .professionalName(row.professionalName())
+                .visitDate(row.visitDate())
+                .startTime(row.startTime())
+                .endTime(row.endTime())
+                .visitType(row.visitType() != null ? row.visitType().name() : null)
+                .observations(row.observations())
+                .build();
+    }
+
+    /**
+     * Operação cujo erro deixou a transação do lote marcada para rollback.
+     */
+    private static final class BatchRollbackException extends RuntimeException {
+
+        private final String key;
+
+        BatchRollbackException(String key, RuntimeException cause) {
+            super(cause.getMessage(), cause);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package dev.huggo.vntl_backend.service;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Efeitos que as escritas deixam para o fim da transação (ajustes do dashboard, versões dos ETags,
+ * avisos SSE e às outras instâncias, histórico de aparelhos), todos registrados como sincronizações.
+ *
+ * O que cada componente acumula na transação fica dentro da própria sincronização, e não num recurso
+ * vinculado à thread: assim {@link #discardOnFailure} descarta junto, de uma vez, tudo o que um trecho
+ * desfeito num savepoint já tinha registrado.
+ */
+final class TransactionEffects {
+
+    private TransactionEffects() {
+    }
+
+    /**
+     * Coleção do {@code owner} na transação atual. Na primeira chamada da transação cria a coleção e
+     * registra a sincronização que a consome.
+     */
+    @SuppressWarnings("unchecked")
+    static <C> C buffer(Object owner, Supplier<C> factory, Function<C, TransactionSynchronization> synchronization) {
+        for (TransactionSynchronization registered : TransactionSynchronizationManager.getSynchronizations()) {
+            if (registered instanceof Buffer<?> buffer && buffer.owner() == owner) {
+                return (C) buffer.items();
+            }
+        }
+        C items = factory.get();
+        TransactionSynchronizationManager.registerSynchronization(
+                new Buffer<>(owner, items, synchronization.apply(items)));
+        return items;
+    }
+
+    /**
+     * Executa {@code work} com uma lista de sincronizações própria: se terminar normalmente, as que registrou
+     * se somam às da transação; se lançar exceção, são descartadas. Sem sincronização ativa só executa.
+     */
+    static <T> T discardOnFailure(Supplier<T> work) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return work.get();
+        }
+        List<TransactionSynchronization> outer = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> registered = List.of();
+        try {
+            T result = work.get();
+            registered = TransactionSynchronizationManager.getSynchronizations();
+            return result;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.initSynchronization();
+            outer.forEach(TransactionSynchronizationManager::registerSynchronization);
+            registered.forEach(TransactionSynchronizationManager::registerSynchronization);
+        }
+    }
+
+    private record Buffer<C>(Object owner, C items, TransactionSynchronization delegate)
+            implements TransactionSynchronization {
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            delegate.beforeCommit(readOnly);
+        }
+
+        @Override
+        public void afterCommit() {
+            delegate.afterCommit();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            delegate.afterCompletion(status);
+        }
+    }
+}
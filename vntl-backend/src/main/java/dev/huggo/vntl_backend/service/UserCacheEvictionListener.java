@@ -0,0 +1,49 @@
+package dev.huggo.vntl_backend.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import dev.huggo.vntl_backend.domain.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Listener JPA de {@link User} que invalida o cache de principais assim que o
+ * usuário é alterado (desativação, troca de role) ou removido.
+ *
+ * Dentro de uma transação a entrada só é removida após o commit: uma leitura concorrente
+ * feita antes dele recarregaria a versão antiga, e um rollback não muda nada. Após o commit
+ * as outras instâncias também são avisadas ({@link InvalidationBus}).
+ *
+ * O Hibernate cria este listener junto com o {@code entityManagerFactory}; por isso os
+ * colaboradores, que dependem dos repositórios, só são resolvidos no primeiro evento.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<UserDetailsServiceImpl> userDetailsService;
+    private final ObjectProvider<InvalidationBus> invalidationBus;
+
+    @PostUpdate
+    @PostRemove
+    void onChange(User user) {
+        String username = user.getUsername();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userDetailsService.getObject().evict(username);
+                    invalidationBus.getObject().userChanged(username);
+                }
+            });
+        } else {
+            userDetailsService.getObject().evict(username);
+            invalidationBus.getObject().userChanged(username);
+        }
+    }
+
+}
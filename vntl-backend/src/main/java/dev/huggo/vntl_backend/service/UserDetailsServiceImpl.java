@@ -1,23 +1,93 @@
 package dev.huggo.vntl_backend.service;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
+import dev.huggo.vntl_backend.config.ReadRouting;
+import dev.huggo.vntl_backend.domain.User;
 import dev.huggo.vntl_backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Slf4j
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.principal-cache.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    @Value("${security.principal-cache.max-size:1000}")
+    private long cacheMaxSize;
+
+    private Cache<String, User> principals;
+
+    @PostConstruct
+    void init() {
+        principals = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheTtl)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principals");
+    }
 
+    /**
+     * Carrega o usuário pelo username, consultando a tabela {@code users} apenas
+     * quando o principal não está no cache (ou expirou pelo TTL).
+     */
     @Override
     public UserDetails loadUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+        // Do primário: uma réplica atrasada deixaria no cache o usuário antes da desativação
+        return principals.get(username, key -> ReadRouting.onPrimary(() -> userRepository.findByUsername(key))
+            .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado")));
+    }
+
+    /**
+     * Chamado pelo Spring Security após um login bem-sucedido quando o
+     * {@code PasswordEncoder} pede novo hash (custo BCrypt diferente do atual).
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByUsername(user.getUsername())
             .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+        entity.setPassword(newPassword);
+        log.info("Rehashed password for user id={}", entity.getId());
+        return userRepository.save(entity);
+    }
+
+    /**
+     * Remove o usuário do cache. Chamado sempre que um {@link User} é alterado ou removido.
+     */
+    public void evict(String username) {
+        if (username != null) {
+            principals.invalidate(username);
+        }
+    }
+
+    /**
+     * Esvazia o cache; usado quando avisos de outras instâncias podem ter se perdido.
+     */
+    public void evictAll() {
+        principals.invalidateAll();
     }
 
 }
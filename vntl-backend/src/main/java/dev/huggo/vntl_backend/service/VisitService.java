@@ -0,0 +1,14 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.repository.VisitFilter;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
+import dev.huggo.vntl_backend.service.dto.VisitRequest;
+import dev.huggo.vntl_backend.service.dto.VisitResponse;
+
+public interface VisitService {
+    VisitResponse create(VisitRequest request);
+    VisitResponse update(Long id, VisitRequest request);
+    VisitResponse getById(Long id);
+    CursorPage<VisitResponse> list(VisitFilter filter, String cursor, int limit);
+    void delete(Long id);
+}
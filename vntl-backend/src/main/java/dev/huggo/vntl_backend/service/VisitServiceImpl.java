@@ -0,0 +1,184 @@
+package dev.huggo.vntl_backend.service;
+
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.Visit;
+import dev.huggo.vntl_backend.domain.VisitType;
+import dev.huggo.vntl_backend.repository.KeysetCursor;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.ProfessionalRepository;
+import dev.huggo.vntl_backend.repository.VisitFilter;
+import dev.huggo.vntl_backend.repository.VisitListRow;
+import dev.huggo.vntl_backend.repository.VisitRepository;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
+import dev.huggo.vntl_backend.service.dto.VisitRequest;
+import dev.huggo.vntl_backend.service.dto.VisitResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Registro de visitas. As datas de última e próxima visita do paciente são derivadas das
+ * visitas e recalculadas na mesma transação de cada escrita, com o paciente travado
+ * ({@code SELECT ... FOR UPDATE}) para que escritas concorrentes não percam atualizações.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VisitServiceImpl implements VisitService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final VisitRepository visitRepository;
+    private final PatientRepository patientRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final DashboardCounters dashboardCounters;
+    private final ChangeTracker changeTracker;
+
+    @Override
+    @Transactional
+    public VisitResponse create(VisitRequest request) {
+        Patient patient = lockPatient(request.getPatientId());
+        Visit visit = new Visit();
+        applyRequest(request, visit);
+        Visit saved = visitRepository.save(visit);
+        refreshVisitDates(patient, null);
+        log.info("Created visit id={} patient id={}", saved.getId(), saved.getPatientId());
+        return getRow(saved.getId());
+    }
+
+    @Override
+    @Transactional
+    public VisitResponse update(Long id, VisitRequest request) {
+        Visit visit = visitRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
+        Long previousPatientId = visit.getPatientId();
+        LocalDate previousDate = visit.getVisitDate();
+
+        Patient patient = lockPatient(request.getPatientId());
+        Patient previousPatient = previousPatientId.equals(patient.getId()) ? patient : lockPatient(previousPatientId);
+
+        applyRequest(request, visit);
+        visitRepository.saveAndFlush(visit);
+
+        refreshVisitDates(patient, previousPatient == patient ? previousDate : null);
+        if (previousPatient != patient) {
+            refreshVisitDates(previousPatient, previousDate);
+        }
+        log.info("Updated visit id={}", id);
+        return getRow(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VisitResponse getById(Long id) {
+        return getRow(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<VisitResponse> list(VisitFilter filter, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // Busca um registro a mais só para saber se existe próxima página
+        List<VisitListRow> rows = visitRepository.findPage(filter, KeysetCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<VisitListRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        VisitListRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<VisitResponse>builder()
+                .items(page.stream().map(this::toResponse).toList())
+                .nextCursor(hasMore ? new KeysetCursor(last.visitDate().toString(), last.id()).encode() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long id) {
+        Visit visit = visitRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
+        Patient patient = lockPatient(visit.getPatientId());
+        visitRepository.delete(visit);
+        visitRepository.flush();
+        refreshVisitDates(patient, visit.getVisitDate());
+        log.info("Deleted visit id={}", id);
+    }
+
+    private Patient lockPatient(Long patientId) {
+        return patientRepository.findByIdForUpdate(patientId)
+                .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+    }
+
+    /**
+     * Última visita = visita mais recente até hoje; próxima = primeira visita depois de hoje.
+     * Sem visita futura registrada, a próxima visita agendada no cadastro do paciente é mantida
+     * enquanto ainda não tiver sido cumprida (posterior à última visita) e não for a data removida.
+     *
+     * @param removedDate data de uma visita que acabou de ser removida ou remarcada
+     */
+    private void refreshVisitDates(Patient patient, LocalDate removedDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate lastVisit = visitRepository.findLastVisitDate(patient.getId(), today);
+        LocalDate nextVisit = visitRepository.findNextVisitDate(patient.getId(), today);
+
+        LocalDate scheduled = patient.getNextVisitDate();
+        if (nextVisit == null && scheduled != null && !scheduled.equals(removedDate)
+                && (lastVisit == null || scheduled.isAfter(lastVisit))) {
+            nextVisit = scheduled;
+        }
+
+        if (Objects.equals(lastVisit, patient.getLastVisitDate()) && Objects.equals(nextVisit, scheduled)) {
+            return;
+        }
+        patient.setLastVisitDate(lastVisit);
+        patient.setNextVisitDate(nextVisit);
+        patientRepository.save(patient);
+        dashboardCounters.patientChanged(patient.getStatus(), patient.getStatus(), scheduled, nextVisit);
+        changeTracker.changed(ChangeEntityType.PACIENTE, patient.getId());
+    }
+
+    private void applyRequest(VisitRequest request, Visit visit) {
+        if (request.getProfessionalId() != null && !professionalRepository.existsById(request.getProfessionalId())) {
+            throw new IllegalArgumentException("Professional not found");
+        }
+        if (request.getStartTime() != null && request.getEndTime() != null
+                && request.getEndTime().isBefore(request.getStartTime())) {
+            throw new IllegalArgumentException("End time must not be before start time");
+        }
+        visit.setPatientId(request.getPatientId());
+        visit.setProfessionalId(request.getProfessionalId());
+        visit.setVisitDate(request.getVisitDate());
+        visit.setStartTime(request.getStartTime());
+        visit.setEndTime(request.getEndTime());
+        visit.setVisitType(request.getVisitType() == null || request.getVisitType().isBlank()
+                ? VisitType.ROTINA
+                : VisitType.valueOf(request.getVisitType().trim().toUpperCase(Locale.ROOT)));
+        visit.setObservations(request.getObservations());
+    }
+
+    private VisitResponse getRow(Long id) {
+        return visitRepository.findRowById(id)
+                .map(this::toResponse)
+                .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
+    }
+
+    private VisitResponse toResponse(VisitListRow row) {
+        return VisitResponse.builder()
+                .id(row.id())
+                .patientId(row.patientId())
+                .patientName(row.patientName())
+                .professionalId(row.professionalId())
+                .professionalName(row.professionalName())
+                .visitDate(row.visitDate())
+                .startTime(row.startTime())
+                .endTime(row.endTime())
+                .visitType(row.visitType() != null ? row.visitType().name() : null)
+                .observations(row.observations())
+                .build();
+    }
+}
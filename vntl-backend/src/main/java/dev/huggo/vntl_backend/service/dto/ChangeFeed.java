@@ -0,0 +1,35 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Alterações de um recurso desde a marca informada pelo cliente.
+ */
+@Value
+@Builder
+public class ChangeFeed<T> {
+
+    // Registros criados ou alterados, em ordem de alteração
+    @JsonProperty("alterados")
+    List<T> changed;
+
+    // Ids excluídos; aplicar depois de "alterados"
+    @JsonProperty("removidos")
+    List<Long> deleted;
+
+    // Enviar como "since" na próxima consulta
+    @JsonProperty("marca")
+    Instant watermark;
+
+    // true se o limite foi atingido; consultar de novo a partir de "marca"
+    @JsonProperty("incompleto")
+    boolean truncated;
+
+    // true se a marca é nula ou mais antiga que as exclusões guardadas: recarregar a lista inteira
+    @JsonProperty("recarregar")
+    boolean reload;
+}
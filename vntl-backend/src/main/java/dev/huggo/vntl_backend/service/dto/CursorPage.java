@@ -0,0 +1,20 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Página de uma listagem paginada por keyset. {@code nextCursor} é nulo na última página.
+ */
+@Value
+@Builder
+public class CursorPage<T> {
+
+    @JsonProperty("itens")
+    List<T> items;
+
+    @JsonProperty("proximoCursor")
+    String nextCursor;
+}
@@ -0,0 +1,31 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class DashboardSummaryResponse {
+
+    // Quantidade por status (ESTOQUE, EM_USO, ...)
+    @JsonProperty("aparelhosPorStatus")
+    Map<String, Long> devices;
+
+    // Quantidade por status (ATIVO, AGUARDANDO, ...)
+    @JsonProperty("pacientesPorStatus")
+    Map<String, Long> patients;
+
+    @JsonProperty("profissionaisTotal")
+    long professionalsTotal;
+
+    @JsonProperty("profissionaisAtivos")
+    long professionalsActive;
+
+    @JsonProperty("proximasVisitas")
+    long upcomingVisits;
+
+    @JsonProperty("proximasVisitasDias")
+    int upcomingVisitsDays;
+}
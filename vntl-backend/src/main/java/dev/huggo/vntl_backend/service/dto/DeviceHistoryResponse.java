@@ -0,0 +1,34 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class DeviceHistoryResponse {
+    @JsonProperty("id")
+    Long id;
+
+    @JsonProperty("aparelhoId")
+    Long deviceId;
+
+    @JsonProperty("pacienteId")
+    Long patientId;
+
+    @JsonProperty("statusAnterior")
+    String previousStatus;
+
+    @JsonProperty("statusNovo")
+    String newStatus;
+
+    @JsonProperty("dataMovimentacao")
+    LocalDateTime movementDate;
+
+    @JsonProperty("observacoes")
+    String observations;
+
+    @JsonProperty("usuarioId")
+    Long userId;
+}
@@ -0,0 +1,38 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ImportJobResponse {
+    @JsonProperty("id")
+    String id;
+
+    @JsonProperty("status")
+    String status;
+
+    // Percentual do arquivo já lido (0 a 100)
+    @JsonProperty("progresso")
+    int progress;
+
+    @JsonProperty("processados")
+    long processed;
+
+    @JsonProperty("importados")
+    long imported;
+
+    @JsonProperty("erros")
+    long errors;
+
+    @JsonProperty("mensagem")
+    String message;
+
+    @JsonProperty("iniciadoEm")
+    Instant createdAt;
+
+    @JsonProperty("concluidoEm")
+    Instant finishedAt;
+}
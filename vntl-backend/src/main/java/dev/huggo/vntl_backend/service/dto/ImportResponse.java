@@ -0,0 +1,19 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ImportResponse {
+    @JsonProperty("total")
+    long total;
+
+    @JsonProperty("importados")
+    long imported;
+
+    @JsonProperty("erros")
+    List<ImportRowError> errors;
+}
@@ -0,0 +1,19 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ImportRowError {
+    // Linha no arquivo (CSV, contando o cabeçalho) ou posição do item (JSON, a partir de 1)
+    @JsonProperty("linha")
+    long line;
+
+    @JsonProperty("identificador")
+    String key;
+
+    @JsonProperty("mensagem")
+    String message;
+}
@@ -0,0 +1,19 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Opção de um campo de seleção: só o id e o texto exibido.
+ */
+@Value
+@Builder
+public class LookupItem {
+
+    @JsonProperty("id")
+    Long id;
+
+    @JsonProperty("rotulo")
+    String label;
+}
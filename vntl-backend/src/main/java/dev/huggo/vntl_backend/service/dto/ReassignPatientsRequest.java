@@ -0,0 +1,28 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Transferência em lote. Sem {@code patientIds}, move todos os pacientes do profissional
+ * de origem que atendem aos filtros informados. {@code targetProfessionalId} nulo desvincula.
+ */
+@Data
+public class ReassignPatientsRequest {
+
+    @JsonProperty("profissionalDestinoId")
+    private Long targetProfessionalId;
+
+    @JsonProperty("pacientesIds")
+    private List<Long> patientIds;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("tipoContrato")
+    private String contractType;
+
+    @JsonProperty("cidade")
+    private String city;
+}
@@ -0,0 +1,27 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ReassignPatientsResponse {
+
+    @JsonProperty("profissionalOrigemId")
+    Long sourceProfessionalId;
+
+    @JsonProperty("profissionalDestinoId")
+    Long targetProfessionalId;
+
+    // Nulo quando a seleção foi feita por filtro
+    @JsonProperty("solicitados")
+    Integer requested;
+
+    @JsonProperty("transferidos")
+    int updated;
+
+    // Ids informados que não pertenciam ao profissional de origem (ou não existem)
+    @JsonProperty("ignorados")
+    Integer skipped;
+}
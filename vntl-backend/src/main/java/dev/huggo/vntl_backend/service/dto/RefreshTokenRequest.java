@@ -0,0 +1,8 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    private String refreshToken;
+}
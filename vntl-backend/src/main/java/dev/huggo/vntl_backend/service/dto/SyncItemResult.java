@@ -0,0 +1,28 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncItemResult {
+    @JsonProperty("chave")
+    String key;
+
+    // APLICADO, DUPLICADO, CONFLITO ou ERRO
+    @JsonProperty("status")
+    String status;
+
+    @JsonProperty("visitaId")
+    Long visitId;
+
+    @JsonProperty("mensagem")
+    String message;
+
+    // Estado atual no servidor, enviado só em conflitos
+    @JsonProperty("visita")
+    VisitResponse visit;
+}
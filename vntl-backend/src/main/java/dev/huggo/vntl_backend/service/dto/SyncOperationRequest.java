@@ -0,0 +1,42 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.Data;
+
+@Data
+public class SyncOperationRequest {
+
+    // Gerada pelo aparelho (UUID); reenviar a mesma chave não aplica a operação de novo
+    @NotBlank
+    @Size(max = 100)
+    @JsonProperty("chave")
+    private String key;
+
+    // CRIAR_VISITA, ATUALIZAR_VISITA, EXCLUIR_VISITA ou ULTIMA_VISITA
+    @NotNull
+    @JsonProperty("tipo")
+    private String type;
+
+    // Quando a alteração foi feita no aparelho; alterações do servidor depois disso geram conflito
+    @JsonProperty("registradoEm")
+    private Instant recordedAt;
+
+    @JsonProperty("visitaId")
+    private Long visitId;
+
+    @JsonProperty("visita")
+    private VisitRequest visit;
+
+    // ULTIMA_VISITA
+    @JsonProperty("pacienteId")
+    private Long patientId;
+
+    // ULTIMA_VISITA
+    @JsonProperty("dataVisita")
+    private LocalDate visitDate;
+}
@@ -0,0 +1,19 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDate;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class SyncPatientDates {
+    @JsonProperty("id")
+    Long id;
+
+    @JsonProperty("dataUltimaVisita")
+    LocalDate lastVisitDate;
+
+    @JsonProperty("dataProximaVisita")
+    LocalDate nextVisitDate;
+}
@@ -0,0 +1,27 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class SyncRequest {
+
+    // Marca "sincronizadoEm" da última resposta; nulo na primeira sincronização
+    @JsonProperty("desde")
+    private Instant since;
+
+    // Restringe o delta às visitas de um profissional
+    @JsonProperty("profissionalId")
+    private Long professionalId;
+
+    @Valid
+    @NotNull
+    @Size(max = 500)
+    @JsonProperty("operacoes")
+    private List<SyncOperationRequest> operations;
+}
@@ -0,0 +1,31 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class SyncResponse {
+    // Um resultado por operação, na mesma ordem do pedido
+    @JsonProperty("resultados")
+    List<SyncItemResult> results;
+
+    // Visitas alteradas desde "desde" (inclui as aplicadas neste lote)
+    @JsonProperty("visitas")
+    List<VisitResponse> visits;
+
+    // Datas derivadas dos pacientes afetados pelo lote
+    @JsonProperty("pacientes")
+    List<SyncPatientDates> patients;
+
+    // Enviar como "desde" na próxima sincronização
+    @JsonProperty("sincronizadoEm")
+    Instant syncedAt;
+
+    // true se o delta foi cortado no limite; o cliente deve sincronizar de novo a partir de "sincronizadoEm"
+    @JsonProperty("incompleto")
+    boolean truncated;
+}
@@ -0,0 +1,34 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import lombok.Data;
+
+@Data
+public class VisitRequest {
+
+    @NotNull
+    @JsonProperty("pacienteId")
+    private Long patientId;
+
+    @JsonProperty("profissionalId")
+    private Long professionalId;
+
+    @NotNull
+    @JsonProperty("dataVisita")
+    private LocalDate visitDate;
+
+    @JsonProperty("horaInicio")
+    private LocalTime startTime;
+
+    @JsonProperty("horaFim")
+    private LocalTime endTime;
+
+    @JsonProperty("tipo")
+    private String visitType;
+
+    @JsonProperty("observacoes")
+    private String observations;
+}
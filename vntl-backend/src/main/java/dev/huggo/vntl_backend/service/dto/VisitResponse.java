@@ -0,0 +1,41 @@
+package dev.huggo.vntl_backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class VisitResponse {
+    @JsonProperty("id")
+    Long id;
+
+    @JsonProperty("pacienteId")
+    Long patientId;
+
+    @JsonProperty("pacienteNome")
+    String patientName;
+
+    @JsonProperty("profissionalId")
+    Long professionalId;
+
+    @JsonProperty("profissionalNome")
+    String professionalName;
+
+    @JsonProperty("dataVisita")
+    LocalDate visitDate;
+
+    @JsonProperty("horaInicio")
+    LocalTime startTime;
+
+    @JsonProperty("horaFim")
+    LocalTime endTime;
+
+    @JsonProperty("tipo")
+    String visitType;
+
+    @JsonProperty("observacoes")
+    String observations;
+}
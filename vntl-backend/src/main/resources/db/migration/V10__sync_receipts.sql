@@ -0,0 +1,15 @@
+-- Visits get a last-modified timestamp for sync conflict checks and deltas
+ALTER TABLE visits ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+UPDATE visits SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP);
+CREATE INDEX idx_visits_updated_at_id ON visits(updated_at, id);
+
+-- Idempotency keys of mutations already applied through /api/sync
+CREATE TABLE sync_receipts (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    username VARCHAR(100) NOT NULL,
+    operation_type VARCHAR(30) NOT NULL,
+    visit_id BIGINT,
+    patient_id BIGINT,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_sync_receipts_applied_at ON sync_receipts(applied_at);
@@ -0,0 +1,16 @@
+-- Change feeds (?since=) read rows in (updated_at, id) order
+UPDATE patients SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+UPDATE devices SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+UPDATE professionals SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+CREATE INDEX idx_patients_updated_at_id ON patients(updated_at, id);
+CREATE INDEX idx_devices_updated_at_id ON devices(updated_at, id);
+CREATE INDEX idx_professionals_updated_at_id ON professionals(updated_at, id);
+
+-- Tombstones of deleted rows, so change feeds can report deletions
+CREATE TABLE deleted_records (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_deleted_records_type_date_id ON deleted_records(entity_type, deleted_at, id);
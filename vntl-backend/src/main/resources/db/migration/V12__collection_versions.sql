@@ -0,0 +1,4 @@
+-- Per-collection modification counters used as list ETags, bumped after each committed write
+CREATE SEQUENCE patients_version_seq;
+CREATE SEQUENCE devices_version_seq;
+CREATE SEQUENCE professionals_version_seq;
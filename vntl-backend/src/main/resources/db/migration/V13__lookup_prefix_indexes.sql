@@ -0,0 +1,3 @@
+-- Dropdown lookups: asset number prefix within a status, and name prefix of active professionals
+CREATE INDEX idx_devices_status_asset_number_prefix ON devices(status, lower(asset_number) text_pattern_ops);
+CREATE INDEX idx_professionals_active_name_prefix ON professionals(lower(name) text_pattern_ops) WHERE active;
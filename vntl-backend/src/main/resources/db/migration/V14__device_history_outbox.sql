@@ -0,0 +1,12 @@
+-- Device movements written in the business transaction; moved to device_history in batches.
+-- No foreign keys or secondary indexes, so the insert on the request path stays cheap
+CREATE TABLE device_history_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    device_id BIGINT NOT NULL,
+    patient_id BIGINT,
+    previous_status VARCHAR(50),
+    new_status VARCHAR(50) NOT NULL,
+    movement_date TIMESTAMP NOT NULL,
+    observations TEXT,
+    username VARCHAR(100)
+);
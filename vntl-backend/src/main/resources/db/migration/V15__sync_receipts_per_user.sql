@@ -0,0 +1,4 @@
+-- Idempotency keys are generated by each client; scope them per user so that two technicians
+-- sending the same key do not see each other's operations as duplicates
+ALTER TABLE sync_receipts DROP CONSTRAINT sync_receipts_pkey;
+ALTER TABLE sync_receipts ADD PRIMARY KEY (username, idempotency_key);
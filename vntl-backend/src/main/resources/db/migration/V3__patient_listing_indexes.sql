@@ -0,0 +1,7 @@
+-- Keyset pagination of patients ordered by (name, id)
+CREATE INDEX idx_patients_name_id ON patients(name, id);
+
+-- Patient listing filters
+CREATE INDEX idx_patients_contract_type ON patients(contract_type);
+CREATE INDEX idx_patients_city ON patients(lower(address_city));
+CREATE INDEX idx_patients_next_visit ON patients(next_visit_date);
@@ -0,0 +1,3 @@
+-- Keyset pagination of devices ordered by (asset_number, id) and type filter
+CREATE INDEX idx_devices_asset_number_id ON devices(asset_number, id);
+CREATE INDEX idx_devices_type ON devices(type);
@@ -0,0 +1,12 @@
+-- A device can be linked to at most one patient.
+-- Existing duplicates keep the link on the oldest patient.
+UPDATE patients p
+SET device_id = NULL
+WHERE p.device_id IS NOT NULL
+  AND EXISTS (
+      SELECT 1 FROM patients q
+      WHERE q.device_id = p.device_id AND q.id < p.id
+  );
+
+DROP INDEX IF EXISTS idx_patients_device;
+CREATE UNIQUE INDEX uq_patients_device ON patients(device_id) WHERE device_id IS NOT NULL;
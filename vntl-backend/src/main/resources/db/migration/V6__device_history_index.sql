@@ -0,0 +1,2 @@
+-- Per-device movement history, newest first, paged by (movement_date, id)
+CREATE INDEX idx_device_history_device_date ON device_history(device_id, movement_date, id);
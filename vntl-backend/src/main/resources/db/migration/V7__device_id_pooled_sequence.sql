@@ -0,0 +1,4 @@
+-- Devices get ids from the sequence in blocks of 50 (Hibernate pooled optimizer),
+-- so bulk inserts no longer need a round trip per row to learn the generated id.
+-- Must match allocationSize on Device.id.
+ALTER SEQUENCE devices_id_seq INCREMENT BY 50;
@@ -0,0 +1,3 @@
+-- Same as V7 for patients: ids allocated in blocks of 50 so imports can batch INSERTs.
+-- Must match allocationSize on Patient.id.
+ALTER SEQUENCE patients_id_seq INCREMENT BY 50;
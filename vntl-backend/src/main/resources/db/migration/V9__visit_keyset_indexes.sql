@@ -0,0 +1,11 @@
+-- ON DELETE SET NULL on professional_id cannot work while the column is NOT NULL
+ALTER TABLE visits ALTER COLUMN professional_id DROP NOT NULL;
+
+-- Keyset pagination ordered by (visit_date, id) per patient, per professional and overall.
+-- The composite indexes cover the single-column ones they replace.
+DROP INDEX IF EXISTS idx_visits_patient;
+DROP INDEX IF EXISTS idx_visits_professional;
+DROP INDEX IF EXISTS idx_visits_date;
+CREATE INDEX idx_visits_patient_date_id ON visits(patient_id, visit_date, id);
+CREATE INDEX idx_visits_professional_date_id ON visits(professional_id, visit_date, id);
+CREATE INDEX idx_visits_date_id ON visits(visit_date, id);
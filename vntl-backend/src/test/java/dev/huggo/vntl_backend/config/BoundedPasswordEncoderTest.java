@@ -0,0 +1,121 @@
+package dev.huggo.vntl_backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private static final String HASH = new BCryptPasswordEncoder(4).encode("senha");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        encoder.shutdown();
+    }
+
+    /**
+     * Uma verificação ocupa a única thread e outra ocupa a única vaga da fila: a próxima é
+     * recusada na hora, sem esperar o timeout.
+     */
+    @Test
+    void fullQueueIsRejectedImmediatelyWith503() throws Exception {
+        encoder = new BoundedPasswordEncoder(4, 1, 1, Duration.ofSeconds(30), meterRegistry);
+        BlockingPassword running = new BlockingPassword();
+        callers.submit(() -> encoder.matches(running, HASH));
+        assertThat(running.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        callers.submit(() -> encoder.matches(new BlockingPassword(), HASH));
+        awaitQueued(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> encoder.matches("senha", HASH))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void slowHashingTimesOutWith503() {
+        encoder = new BoundedPasswordEncoder(4, 1, 1, Duration.ofMillis(100), meterRegistry);
+
+        assertThatThrownBy(() -> encoder.matches(new BlockingPassword(), HASH))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+        // A tarefa cancelada libera a thread para o próximo login
+        assertThat(encoder.matches("senha", HASH)).isTrue();
+    }
+
+    @Test
+    void hashesWithAnotherCostAreUpgraded() {
+        encoder = new BoundedPasswordEncoder(5, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertThat(encoder.upgradeEncoding(HASH)).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("senha"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("senha"))).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    private void awaitQueued(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("password.hashing.queue").gauge().value() < size) {
+            assertThat(System.nanoTime()).as("queued verifications").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Senha que prende a thread de hashing até o fim do teste (o BCrypt lê a senha com {@code toString}).
+     */
+    private class BlockingPassword implements CharSequence {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        @Override
+        public String toString() {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "senha";
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package dev.huggo.vntl_backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "uma-chave-de-teste-com-no-minimo-32-bytes!!";
+
+    private final UserDetails admin = User.withUsername("admin").password("x").roles("ADMIN").build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = jwtService(900_000);
+    }
+
+    @Test
+    void secondVerificationIsServedFromTheCache() {
+        String token = jwtService.generateToken(admin);
+
+        TokenClaims first = jwtService.verify(token);
+        TokenClaims second = jwtService.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.username()).isEqualTo("admin");
+        assertThat(second.role()).isEqualTo("ROLE_ADMIN");
+        assertThat(cacheGets("hit")).isEqualTo(1);
+        assertThat(cacheGets("miss")).isEqualTo(1);
+    }
+
+    /**
+     * O token já está no cache quando expira: a entrada ainda pode estar lá, mas não vale mais.
+     */
+    @Test
+    void cachedTokenIsRejectedOnceExpired() throws InterruptedException {
+        jwtService = jwtService(1_000);
+        String token = jwtService.generateToken(admin);
+        TokenClaims claims = jwtService.verify(token);
+
+        Thread.sleep(Math.max(0, claims.expiresAt().toEpochMilli() - System.currentTimeMillis()) + 100);
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void signedTokenWithoutExpirationIsRejected() {
+        String token = Jwts.builder()
+                .subject("admin")
+                .claim("role", "ROLE_ADMIN")
+                .issuedAt(new Date())
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    private JwtService jwtService(long expirationMillis) {
+        meterRegistry = new SimpleMeterRegistry();
+        JwtService service = new JwtService(meterRegistry);
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "expiration", expirationMillis);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        service.init();
+        return service;
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "jwt.verified-tokens")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
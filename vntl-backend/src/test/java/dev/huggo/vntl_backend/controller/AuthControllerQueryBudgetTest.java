@@ -0,0 +1,83 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.jayway.jsonpath.JsonPath;
+
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.StatementBudget;
+
+/**
+ * Usa o admin criado pela migração inicial.
+ */
+class AuthControllerQueryBudgetTest extends EndpointTest {
+
+    private static final String LOGIN = """
+            {"username": "admin", "password": "admin123"}
+            """;
+
+    private String accessToken;
+    private String refreshToken;
+
+    @BeforeEach
+    void login() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(LOGIN))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        accessToken = JsonPath.read(body, "$.token");
+        refreshToken = JsonPath.read(body, "$.refreshToken");
+    }
+
+    /**
+     * Usuário (se não estiver em cache) e o refresh token novo.
+     */
+    @Test
+    @StatementBudget(3)
+    void loginIssuesTokens() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(LOGIN))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Token atual, usuário, revogação do atual e o token novo da mesma família.
+     */
+    @Test
+    @StatementBudget(5)
+    void refresh() throws Exception {
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshJson()))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Revoga a família do refresh token e registra o access token como revogado.
+     */
+    @Test
+    @StatementBudget(6)
+    void logout() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshJson()))
+                .andExpect(status().isNoContent());
+    }
+
+    private String refreshJson() {
+        return """
+                {"refreshToken": "%s"}
+                """.formatted(refreshToken);
+    }
+}
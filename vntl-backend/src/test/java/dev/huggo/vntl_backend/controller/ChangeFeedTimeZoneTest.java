@@ -0,0 +1,133 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.Professional;
+import dev.huggo.vntl_backend.support.EndpointTest;
+
+/**
+ * Feeds de alterações com a JVM e a sessão do banco fora de UTC (o surefire roda os testes em UTC-3,
+ * como em produção). As linhas marcadas como alteradas por UPDATEs em massa têm que aparecer no feed
+ * como as gravadas pelo JPA.
+ *
+ * Antes de cada teste os cadastros são recuados uma hora, para que só as alterações do teste caiam
+ * na margem do feed.
+ */
+class ChangeFeedTimeZoneTest extends EndpointTest {
+
+    private List<Professional> professionals;
+    private List<Patient> patients;
+
+    @BeforeEach
+    void seed() {
+        professionals = seedProfessionals(3);
+        patients = seedPatients(6, List.of(), professionals);
+        for (String table : List.of("patients", "devices", "professionals")) {
+            jdbcTemplate.update("UPDATE " + table + " SET updated_at = updated_at - INTERVAL '1 hour'");
+        }
+    }
+
+    /**
+     * Nome exibido nos pacientes da carteira: os pacientes são marcados em massa.
+     */
+    @Test
+    void renamedProfessionalPutsItsPatientsInThePatientFeed() throws Exception {
+        Instant since = Instant.now();
+        Professional professional = professionals.get(0);
+        mockMvc.perform(put("/api/professionals/{id}", professional.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nome": "Nome alterado", "cpf": "%s", "ativo": true}
+                                """.formatted(professional.getCpf())))
+                .andExpect(status().isOk());
+
+        changes("/api/patients/changes", since)
+                .andExpect(jsonPath("$.alterados.length()").value(2))
+                .andExpect(jsonPath("$.alterados[*].id").value(hasItem(patients.get(0).getId().intValue())));
+    }
+
+    /**
+     * Carteira alterada: os dois profissionais são marcados sem que a linha deles mude; o terceiro
+     * não volta no feed.
+     */
+    @Test
+    void assignedPatientPutsBothProfessionalsInTheProfessionalFeed() throws Exception {
+        Instant since = Instant.now();
+        mockMvc.perform(post("/api/professionals/{id}/patients", professionals.get(1).getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"patientId": %d}
+                                """.formatted(patients.get(0).getId())))
+                .andExpect(status().isCreated());
+
+        changes("/api/professionals/changes", since)
+                .andExpect(jsonPath("$.alterados.length()").value(2));
+    }
+
+    /**
+     * Transferência em massa e desvinculação pela exclusão do profissional: um UPDATE por operação.
+     */
+    @Test
+    void reassignedAndUnassignedPatientsAreInThePatientFeed() throws Exception {
+        Instant since = Instant.now();
+        mockMvc.perform(post("/api/professionals/{id}/patients/reassign", professionals.get(0).getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"profissionalDestinoId": %d}
+                                """.formatted(professionals.get(1).getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transferidos").value(2));
+        mockMvc.perform(delete("/api/professionals/{id}", professionals.get(2).getId()))
+                .andExpect(status().isNoContent());
+
+        changes("/api/patients/changes", since)
+                .andExpect(jsonPath("$.alterados.length()").value(4));
+    }
+
+    /**
+     * Troca de aparelho do paciente: as transições de status são UPDATEs condicionais.
+     */
+    @Test
+    void devicesCheckedOutAndReturnedAreInTheDeviceFeed() throws Exception {
+        List<Device> devices = seedDevices(3, DeviceStatus.ESTOQUE);
+        jdbcTemplate.update("UPDATE devices SET updated_at = updated_at - INTERVAL '1 hour'");
+        Patient patient = patients.get(0);
+
+        Instant since = Instant.now();
+        for (Device device : devices.subList(0, 2)) {
+            mockMvc.perform(put("/api/patients/{id}", patient.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"nome": "%s", "cpf": "%s", "tipoContrato": "PREFEITURA", "status": "ATIVO",
+                                     "aparelhoId": %d}
+                                    """.formatted(patient.getName(), patient.getCpf(), device.getId())))
+                    .andExpect(status().isOk());
+        }
+
+        changes("/api/devices/changes", since)
+                .andExpect(jsonPath("$.alterados.length()").value(2));
+    }
+
+    private ResultActions changes(String path, Instant since) throws Exception {
+        return mockMvc.perform(get(path).param("since", since.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recarregar").value(false));
+    }
+}
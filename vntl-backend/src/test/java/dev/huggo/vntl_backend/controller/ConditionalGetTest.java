@@ -0,0 +1,131 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.Professional;
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.EntityCaches;
+
+/**
+ * GETs condicionais: 304 para quem já tem a versão atual, versão nova depois de cada escrita.
+ */
+class ConditionalGetTest extends EndpointTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private List<Professional> professionals;
+    private List<Patient> patients;
+
+    @BeforeEach
+    void seed() {
+        professionals = seedProfessionals(2);
+        patients = seedPatients(3, List.of(), professionals);
+        EntityCaches.reset(applicationContext);
+    }
+
+    @Test
+    void unchangedPatientIsRevalidatedWithoutBody() throws Exception {
+        String path = "/api/patients/" + patients.get(0).getId();
+        String etag = etag(path);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().string(""));
+
+        // Prefixo de comparação fraca acrescentado por proxies que comprimem a resposta
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void patientEtagChangesAfterAWrite() throws Exception {
+        Patient patient = patients.get(0);
+        String path = "/api/patients/" + patient.getId();
+        String before = etag(path);
+
+        rename(patient, "Nome alterado");
+
+        String after = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Nome alterado"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(after).isNotNull().isNotEqualTo(before);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, after))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * A versão da listagem vem do contador da coleção, incrementado a cada commit que altera pacientes,
+     * inclusive os que só mudam dados exibidos no paciente (nome do profissional).
+     */
+    @Test
+    void collectionEtagIsBumpedByWrites() throws Exception {
+        String path = "/api/patients";
+        String initial = etag(path);
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, initial))
+                .andExpect(status().isNotModified());
+
+        rename(patients.get(1), "Nome alterado");
+        String afterPatientWrite = revalidated(path, initial);
+
+        Professional professional = professionals.get(0);
+        mockMvc.perform(put("/api/professionals/{id}", professional.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nome": "Profissional renomeado", "cpf": "%s", "ativo": true}
+                                """.formatted(professional.getCpf())))
+                .andExpect(status().isOk());
+        String afterProfessionalRename = revalidated(path, afterPatientWrite);
+
+        assertThat(afterProfessionalRename).isNotEqualTo(initial);
+    }
+
+    private String etag(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+
+    /**
+     * Revalida com a versão anterior, que já não vale: 200 com a versão nova.
+     */
+    private String revalidated(String path, String previous) throws Exception {
+        String etag = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, previous))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull().isNotEqualTo(previous);
+        return etag;
+    }
+
+    private void rename(Patient patient, String name) throws Exception {
+        mockMvc.perform(put("/api/patients/{id}", patient.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nome": "%s", "cpf": "%s", "tipoContrato": "PREFEITURA", "status": "ATIVO"}
+                                """.formatted(name, patient.getCpf())))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,29 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.StatementBudget;
+
+class DashboardControllerQueryBudgetTest extends EndpointTest {
+
+    @BeforeEach
+    void seed() {
+        seedPatients(1000, seedDevices(1000, DeviceStatus.EM_USO), seedProfessionals(20));
+    }
+
+    /**
+     * O resumo sai dos contadores em memória; o banco só é lido na reconciliação periódica.
+     */
+    @Test
+    @StatementBudget(0)
+    void summary() throws Exception {
+        mockMvc.perform(get("/api/dashboard/summary"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,161 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceHistory;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.repository.DeviceHistoryRepository;
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.StatementBudget;
+
+class DeviceControllerQueryBudgetTest extends EndpointTest {
+
+    private static final int FLEET_SIZE = 1000;
+
+    @Autowired
+    private DeviceHistoryRepository deviceHistoryRepository;
+
+    private List<Device> devices;
+
+    @BeforeEach
+    void seed() {
+        devices = seedDevices(FLEET_SIZE, DeviceStatus.ESTOQUE);
+        seedPatients(FLEET_SIZE / 2, devices, seedProfessionals(10));
+        seedHistory(devices.get(0).getId(), 100);
+    }
+
+    @Test
+    @StatementBudget(5)
+    void create() throws Exception {
+        mockMvc.perform(post("/api/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deviceJson("NOVO-00001", "ESTOQUE")))
+                .andExpect(status().isCreated());
+    }
+
+    /**
+     * Ids da sequência em blocos de 50 e INSERT em batch: cerca de uma ida ao banco a cada 50 linhas.
+     */
+    @Test
+    @StatementBudget(40)
+    void importThousandDevices() throws Exception {
+        String body = IntStream.range(0, 1000)
+                .mapToObj(i -> deviceJson(String.format("IMP-%05d", i), "ESTOQUE"))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(post("/api/devices/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Novo patrimônio: o paciente vinculado também é marcado como alterado.
+     */
+    @Test
+    @StatementBudget(8)
+    void update() throws Exception {
+        mockMvc.perform(put("/api/devices/{id}", devices.get(0).getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deviceJson("ALT-00001", "MANUTENCAO")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/devices/{id}", devices.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pacienteNome").exists());
+    }
+
+    /**
+     * Versão da coleção e uma consulta da página com o paciente de cada aparelho.
+     */
+    @Test
+    @StatementBudget(2)
+    void listPageOfFiveHundred() throws Exception {
+        mockMvc.perform(get("/api/devices").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(500));
+    }
+
+    @Test
+    @StatementBudget(2)
+    void listWithFields() throws Exception {
+        mockMvc.perform(get("/api/devices")
+                        .param("fields", "numeroPatrimonio,status,pacienteNome")
+                        .param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(500));
+    }
+
+    @Test
+    @StatementBudget(2)
+    void lookup() throws Exception {
+        mockMvc.perform(get("/api/devices/lookup").param("limit", "500"))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Linhas alteradas e exclusões: uma consulta cada.
+     */
+    @Test
+    @StatementBudget(2)
+    void changes() throws Exception {
+        mockMvc.perform(get("/api/devices/changes").param("since", Instant.now().minusSeconds(3600).toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void history() throws Exception {
+        mockMvc.perform(get("/api/devices/{id}/history", devices.get(0).getId()).param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(100));
+    }
+
+    @Test
+    @StatementBudget(6)
+    void deleteDevice() throws Exception {
+        mockMvc.perform(delete("/api/devices/{id}", devices.get(FLEET_SIZE - 1).getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    private void seedHistory(Long deviceId, int count) {
+        List<DeviceHistory> history = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            history.add(DeviceHistory.builder()
+                    .deviceId(deviceId)
+                    .previousStatus(i % 2 == 0 ? DeviceStatus.ESTOQUE : DeviceStatus.EM_USO)
+                    .newStatus(i % 2 == 0 ? DeviceStatus.EM_USO : DeviceStatus.ESTOQUE)
+                    .movementDate(LocalDateTime.now().minusHours(count - i))
+                    .build());
+        }
+        deviceHistoryRepository.saveAll(history);
+    }
+
+    private static String deviceJson(String assetNumber, String status) {
+        return """
+                {"numeroPatrimonio": "%s", "tipo": "CONCENTRADOR", "dataCompra": "2024-01-01", "status": "%s"}
+                """.formatted(assetNumber, status);
+    }
+}
@@ -0,0 +1,23 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.StatementBudget;
+
+class EventControllerQueryBudgetTest extends EndpointTest {
+
+    /**
+     * Assinar o stream só registra o cliente; os avisos vêm dos commits, sem consulta.
+     */
+    @Test
+    @StatementBudget(0)
+    void subscribe() throws Exception {
+        mockMvc.perform(get("/api/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+}
@@ -0,0 +1,252 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.jayway.jsonpath.JsonPath;
+
+import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.Professional;
+import dev.huggo.vntl_backend.repository.PatientFilter;
+import dev.huggo.vntl_backend.service.ExportFormat;
+import dev.huggo.vntl_backend.service.PatientExportService;
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.SqlStatementCounter;
+import dev.huggo.vntl_backend.support.StatementBudget;
+import jakarta.persistence.EntityManagerFactory;
+
+class PatientControllerQueryBudgetTest extends EndpointTest {
+
+    private static final int PATIENTS = 1000;
+
+    @Autowired
+    private PatientExportService patientExportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Device> devices;
+    private List<Professional> professionals;
+    private List<Patient> patients;
+
+    @BeforeEach
+    void seed() {
+        // Um aparelho a mais, em estoque, para os vínculos novos
+        devices = seedDevices(PATIENTS + 1, DeviceStatus.ESTOQUE);
+        professionals = seedProfessionals(20);
+        patients = seedPatients(PATIENTS, devices, professionals);
+    }
+
+    @Test
+    @StatementBudget(8)
+    void create() throws Exception {
+        mockMvc.perform(post("/api/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(patientJson("Paciente novo", "99999999999", freeDevice(), professionals.get(0).getId())))
+                .andExpect(status().isCreated());
+    }
+
+    /**
+     * Troca de aparelho e de profissional: dois aparelhos e duas carteiras mudam junto.
+     */
+    @Test
+    @StatementBudget(12)
+    void update() throws Exception {
+        Patient patient = patients.get(0);
+        mockMvc.perform(put("/api/patients/{id}", patient.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(patientJson(patient.getName(), patient.getCpf(), freeDevice(), professionals.get(1).getId())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/patients/{id}", patients.get(0).getId()))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Versão da coleção e uma consulta da página, já com aparelho e profissional de cada paciente.
+     */
+    @Test
+    @StatementBudget(2)
+    void listPageOfFiveHundred() throws Exception {
+        mockMvc.perform(get("/api/patients").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(500));
+    }
+
+    @Test
+    @StatementBudget(2)
+    void listFilteredByProfessional() throws Exception {
+        mockMvc.perform(get("/api/patients")
+                        .param("professionalId", professionals.get(0).getId().toString())
+                        .param("status", "ATIVO")
+                        .param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(PATIENTS / professionals.size()));
+    }
+
+    @Test
+    @StatementBudget(2)
+    void changes() throws Exception {
+        mockMvc.perform(get("/api/patients/changes").param("since", Instant.now().minusSeconds(3600).toString()))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * A requisição só agenda o arquivo, que é escrito pelo executor assíncrono do MVC.
+     */
+    @Test
+    @StatementBudget(0)
+    void exportThousandPatients() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/patients/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String csv = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        // Cabeçalho e uma linha por paciente
+        assertThat(csv.lines()).hasSize(PATIENTS + 1);
+    }
+
+    /**
+     * O que o executor roda, medido na thread do teste: uma única consulta em stream.
+     */
+    @Test
+    void exportStreamsFromOneStatement() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SqlStatementCounter.assertAtMost(1, () -> patientExportService.export(
+                new PatientFilter(null, null, null, null, null, null), ExportFormat.CSV, out));
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(PATIENTS + 1);
+    }
+
+    /**
+     * O job roda em outra thread, fora do escopo do teste; o custo dele vem das estatísticas do
+     * Hibernate, que são globais. Blocos de até 1000 linhas: ids da sequência de 50 em 50 e INSERT em batch.
+     */
+    @Test
+    void importThousandPatients() throws Exception {
+        String csv = IntStream.range(0, 1000)
+                .mapToObj(i -> String.format("Importado %05d,5%010d,UNIMED,ATIVO", i, i))
+                .collect(Collectors.joining("\n", "nome,cpf,tipoContrato,status\n", "\n"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String jobId = startImport(csv);
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(40);
+
+        mockMvc.perform(get("/api/patients/imports/{jobId}", jobId))
+                .andExpect(jsonPath("$.importados").value(1000))
+                .andExpect(jsonPath("$.erros").value(0));
+    }
+
+    /**
+     * Acompanhamento do job e arquivo de erros não vão ao banco.
+     */
+    @Test
+    void importStatusAndErrorsAreServedFromMemory() throws Exception {
+        String jobId = startImport("nome,cpf,tipoContrato,status\nSem CPF,,UNIMED,ATIVO\n");
+
+        SqlStatementCounter.assertAtMost(0, () -> {
+            mockMvc.perform(get("/api/patients/imports/{jobId}", jobId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.erros").value(1));
+            mockMvc.perform(get("/api/patients/imports/{jobId}/errors", jobId))
+                    .andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    @StatementBudget(10)
+    void deletePatient() throws Exception {
+        mockMvc.perform(delete("/api/patients/{id}", patients.get(0).getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    /**
+     * Registra uma visita de rotina: o custo é o de criar a visita.
+     */
+    @Test
+    @StatementBudget(12)
+    void updateLastVisit() throws Exception {
+        mockMvc.perform(patch("/api/patients/{id}/last-visit", patients.get(0).getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"dataVisita": "%s"}
+                                """.formatted(LocalDate.now())))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * @return id do job, depois de concluído
+     */
+    private String startImport(String csv) throws Exception {
+        MvcResult[] accepted = new MvcResult[1];
+        // A requisição só grava o arquivo e agenda o job
+        SqlStatementCounter.assertAtMost(0, () -> accepted[0] = mockMvc.perform(post("/api/patients/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isAccepted())
+                .andReturn());
+        String jobId = JsonPath.read(accepted[0].getResponse().getContentAsString(), "$.id");
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/patients/imports/{jobId}", jobId))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            String jobStatus = JsonPath.read(body, "$.status");
+            if (!jobStatus.equals("PENDENTE") && !jobStatus.equals("PROCESSANDO")) {
+                assertThat(jobStatus).isEqualTo("CONCLUIDO");
+                return jobId;
+            }
+            assertThat(System.currentTimeMillis()).as("import finished in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private Long freeDevice() {
+        return devices.get(PATIENTS).getId();
+    }
+
+    private static String patientJson(String name, String cpf, Long deviceId, Long professionalId) {
+        return """
+                {"nome": "%s", "cpf": "%s", "tipoContrato": "PREFEITURA", "status": "ATIVO",
+                 "aparelhoId": %d, "profissionalResponsavelId": %d}
+                """.formatted(name, cpf, deviceId, professionalId);
+    }
+}
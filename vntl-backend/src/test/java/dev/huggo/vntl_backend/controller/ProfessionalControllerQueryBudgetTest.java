@@ -0,0 +1,164 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.Professional;
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.StatementBudget;
+
+class ProfessionalControllerQueryBudgetTest extends EndpointTest {
+
+    private static final int PROFESSIONALS = 50;
+    private static final int PATIENTS = 1000;
+
+    private List<Professional> professionals;
+    private List<Patient> patients;
+
+    @BeforeEach
+    void seed() {
+        professionals = seedProfessionals(PROFESSIONALS);
+        patients = seedPatients(PATIENTS, List.of(), professionals);
+    }
+
+    @Test
+    @StatementBudget(5)
+    void create() throws Exception {
+        mockMvc.perform(post("/api/professionals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(professionalJson("Profissional novo", "88888888888")))
+                .andExpect(status().isCreated());
+    }
+
+    /**
+     * Nome novo: os pacientes da carteira, que exibem o nome, são marcados como alterados.
+     */
+    @Test
+    @StatementBudget(8)
+    void update() throws Exception {
+        Professional professional = professionals.get(0);
+        mockMvc.perform(put("/api/professionals/{id}", professional.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(professionalJson("Nome alterado", professional.getCpf())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/professionals/{id}", professionals.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pacientesCount").value(PATIENTS / PROFESSIONALS));
+    }
+
+    /**
+     * Versão da coleção e uma consulta agregada com a carteira de todos os profissionais.
+     */
+    @Test
+    @StatementBudget(2)
+    void listAllWithCaseloads() throws Exception {
+        mockMvc.perform(get("/api/professionals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(PROFESSIONALS));
+    }
+
+    @Test
+    @StatementBudget(2)
+    void listWithFields() throws Exception {
+        mockMvc.perform(get("/api/professionals").param("fields", "nome,pacientesCount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(PROFESSIONALS));
+    }
+
+    @Test
+    @StatementBudget(2)
+    void lookup() throws Exception {
+        mockMvc.perform(get("/api/professionals/lookup").param("limit", "100"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void changes() throws Exception {
+        mockMvc.perform(get("/api/professionals/changes").param("since", Instant.now().minusSeconds(3600).toString()))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * A carteira é desvinculada num único UPDATE, qualquer que seja o seu tamanho.
+     */
+    @Test
+    @StatementBudget(8)
+    void deleteProfessional() throws Exception {
+        mockMvc.perform(delete("/api/professionals/{id}", professionals.get(0).getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @StatementBudget(1)
+    void listPatientIds() throws Exception {
+        mockMvc.perform(get("/api/professionals/{id}/patients", professionals.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(PATIENTS / PROFESSIONALS));
+    }
+
+    @Test
+    @StatementBudget(8)
+    void assignPatient() throws Exception {
+        mockMvc.perform(post("/api/professionals/{id}/patients", professionals.get(1).getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"patientId": %d}
+                                """.formatted(patients.get(0).getId())))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @StatementBudget(8)
+    void unassignPatient() throws Exception {
+        Patient patient = patients.get(0);
+        mockMvc.perform(delete("/api/professionals/{professionalId}/patients/{patientId}",
+                        patient.getProfessionalResponsibleId(), patient.getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    /**
+     * Transferência de uma carteira inteira: um UPDATE em conjunto, não um por paciente.
+     */
+    @Test
+    @StatementBudget(6)
+    void reassignPatients() throws Exception {
+        Professional source = professionals.get(0);
+        String patientIds = patients.stream()
+                .filter(p -> source.getId().equals(p.getProfessionalResponsibleId()))
+                .map(p -> p.getId().toString())
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(post("/api/professionals/{id}/patients/reassign", source.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"profissionalDestinoId": %d, "pacientesIds": [%s]}
+                                """.formatted(professionals.get(1).getId(), patientIds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transferidos").value(PATIENTS / PROFESSIONALS));
+    }
+
+    private static String professionalJson(String name, String cpf) {
+        return """
+                {"nome": "%s", "cpf": "%s", "ativo": true}
+                """.formatted(name, cpf);
+    }
+}
@@ -0,0 +1,80 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.SqlStatementCounter;
+import dev.huggo.vntl_backend.support.StatementBudget;
+
+class SyncControllerQueryBudgetTest extends EndpointTest {
+
+    private static final int VISITS = 1000;
+
+    // Criar uma visita custa cerca de oito comandos (ver VisitControllerQueryBudgetTest) mais o comprovante
+    private static final int PER_OPERATION = 10;
+    private static final int OPERATIONS = 20;
+
+    private List<Patient> patients;
+
+    @BeforeEach
+    void seed() {
+        patients = seedPatients(VISITS, List.of(), seedProfessionals(20));
+        seedVisits(patients, LocalDate.now().minusDays(7));
+    }
+
+    /**
+     * Sem operações: só a consulta do delta, limitada a sync.delta-limit visitas.
+     */
+    @Test
+    @StatementBudget(1)
+    void deltaOnly() throws Exception {
+        mockMvc.perform(post("/api/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(syncJson("")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.visitas.length()").value(500))
+                .andExpect(jsonPath("$.incompleto").value(true));
+    }
+
+    /**
+     * Comprovantes do lote lidos numa consulta só; cada operação custa o mesmo que a operação avulsa.
+     */
+    @Test
+    void operationsCostAConstantNumberOfStatementsEach() throws Exception {
+        String operations = patients.subList(0, OPERATIONS).stream()
+                .map(patient -> """
+                        {"chave": "op-%d", "tipo": "CRIAR_VISITA",
+                         "visita": {"pacienteId": %d, "dataVisita": "%s", "tipo": "ROTINA"}}
+                        """.formatted(patient.getId(), patient.getId(), LocalDate.now()))
+                .collect(Collectors.joining(","));
+
+        int executed = SqlStatementCounter.count(() -> mockMvc.perform(post("/api/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(syncJson(operations)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resultados[?(@.status == 'APLICADO')]", hasSize(OPERATIONS))));
+
+        assertThat(executed).isLessThanOrEqualTo(OPERATIONS * PER_OPERATION + 5);
+    }
+
+    private static String syncJson(String operations) {
+        return """
+                {"desde": "%s", "operacoes": [%s]}
+                """.formatted(Instant.now().minus(1, ChronoUnit.DAYS), operations);
+    }
+}
@@ -0,0 +1,100 @@
+package dev.huggo.vntl_backend.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.Visit;
+import dev.huggo.vntl_backend.support.EndpointTest;
+import dev.huggo.vntl_backend.support.StatementBudget;
+
+class VisitControllerQueryBudgetTest extends EndpointTest {
+
+    private static final int VISITS = 1000;
+
+    private List<Patient> patients;
+    private List<Visit> visits;
+
+    @BeforeEach
+    void seed() {
+        patients = seedPatients(VISITS, List.of(), seedProfessionals(20));
+        visits = seedVisits(patients, LocalDate.now().minusDays(7));
+    }
+
+    /**
+     * Trava o paciente, grava a visita e recalcula as datas de última e próxima visita dele.
+     */
+    @Test
+    @StatementBudget(10)
+    void create() throws Exception {
+        Patient patient = patients.get(0);
+        mockMvc.perform(post("/api/visits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(visitJson(patient, LocalDate.now())))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @StatementBudget(12)
+    void update() throws Exception {
+        Patient patient = patients.get(0);
+        mockMvc.perform(put("/api/visits/{id}", visits.get(0).getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(visitJson(patient, LocalDate.now().minusDays(1))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @StatementBudget(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/visits/{id}", visits.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pacienteNome").exists());
+    }
+
+    /**
+     * Uma consulta da página, já com os nomes de paciente e profissional.
+     */
+    @Test
+    @StatementBudget(1)
+    void listPageOfFiveHundred() throws Exception {
+        mockMvc.perform(get("/api/visits").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(500));
+    }
+
+    @Test
+    @StatementBudget(1)
+    void listFilteredByPeriod() throws Exception {
+        mockMvc.perform(get("/api/visits")
+                        .param("from", LocalDate.now().minusDays(30).toString())
+                        .param("to", LocalDate.now().toString())
+                        .param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(500));
+    }
+
+    @Test
+    @StatementBudget(10)
+    void deleteVisit() throws Exception {
+        mockMvc.perform(delete("/api/visits/{id}", visits.get(0).getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    private static String visitJson(Patient patient, LocalDate visitDate) {
+        return """
+                {"pacienteId": %d, "profissionalId": %d, "dataVisita": "%s", "tipo": "ROTINA"}
+                """.formatted(patient.getId(), patient.getProfessionalResponsibleId(), visitDate);
+    }
+}
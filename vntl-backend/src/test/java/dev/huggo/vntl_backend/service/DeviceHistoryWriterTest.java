@@ -0,0 +1,131 @@
+package dev.huggo.vntl_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.support.EmbeddedPostgresTest;
+
+class DeviceHistoryWriterTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private DeviceHistoryWriter deviceHistoryWriter;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private List<Device> devices;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE device_history, device_history_outbox, devices CASCADE");
+        transaction = new TransactionTemplate(transactionManager);
+        devices = deviceRepository.saveAll(List.of(device("HIST-1"), device("HIST-2")));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void committedMovementsAreStoredBeforeTheFlushAndMovedToTheLedger() {
+        Long deviceId = devices.get(0).getId();
+        transaction.executeWithoutResult(status -> {
+            deviceHistoryWriter.record(deviceId, null, null, DeviceStatus.ESTOQUE, "Cadastro do aparelho");
+            deviceHistoryWriter.record(deviceId, null, DeviceStatus.ESTOQUE, DeviceStatus.MANUTENCAO, null);
+        });
+
+        // Gravadas na transação, sem esperar o agendador
+        assertThat(outbox()).isEqualTo(2);
+
+        deviceHistoryWriter.flush();
+
+        assertThat(outbox()).isZero();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT h.new_status FROM device_history h JOIN users u ON u.id = h.user_id " +
+                "WHERE h.device_id = ? AND u.username = 'admin' ORDER BY h.id", String.class, deviceId))
+                .containsExactly("ESTOQUE", "MANUTENCAO");
+    }
+
+    @Test
+    void rolledBackMovementsAreNotRecorded() {
+        transaction.executeWithoutResult(status -> {
+            deviceHistoryWriter.record(devices.get(0).getId(), null, DeviceStatus.ESTOQUE, DeviceStatus.EM_USO, null);
+            status.setRollbackOnly();
+        });
+
+        deviceHistoryWriter.flush();
+
+        assertThat(outbox() + ledger()).isZero();
+    }
+
+    /**
+     * A outbox é gravada antes do flush do JPA, na mesma transação: se o commit falhar depois
+     * (patrimônio duplicado), a movimentação também é desfeita.
+     */
+    @Test
+    void movementsAreUndoneWhenTheCommitFails() {
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            deviceRepository.save(device("HIST-1"));
+            deviceHistoryWriter.record(devices.get(0).getId(), null, DeviceStatus.ESTOQUE, DeviceStatus.EM_USO, null);
+        })).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(outbox()).isZero();
+    }
+
+    @Test
+    void movementsOfDeletedDevicesAreDroppedWithoutHoldingBackTheOthers() {
+        transaction.executeWithoutResult(status -> devices.forEach(device ->
+                deviceHistoryWriter.record(device.getId(), null, DeviceStatus.ESTOQUE, DeviceStatus.INATIVO, null)));
+        deviceRepository.deleteById(devices.get(0).getId());
+
+        deviceHistoryWriter.flush();
+
+        assertThat(outbox()).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT device_id FROM device_history", Long.class))
+                .containsExactly(devices.get(1).getId());
+    }
+
+    private int outbox() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM device_history_outbox", Integer.class);
+    }
+
+    private int ledger() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM device_history", Integer.class);
+    }
+
+    private static Device device(String assetNumber) {
+        return Device.builder()
+                .assetNumber(assetNumber)
+                .type("CONCENTRADOR")
+                .purchaseDate(LocalDate.of(2024, 1, 1))
+                .status(DeviceStatus.ESTOQUE)
+                .build();
+    }
+}
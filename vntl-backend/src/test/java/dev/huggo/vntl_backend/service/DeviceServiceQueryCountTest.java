@@ -0,0 +1,113 @@
+package dev.huggo.vntl_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import dev.huggo.vntl_backend.repository.DeviceFilter;
+import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.service.dto.CursorPage;
+import dev.huggo.vntl_backend.service.dto.DeviceResponse;
+import dev.huggo.vntl_backend.support.EmbeddedPostgresTest;
+import dev.huggo.vntl_backend.support.EntityCaches;
+import jakarta.persistence.EntityManagerFactory;
+
+class DeviceServiceQueryCountTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    void cleanDatabase() {
+        patientRepository.deleteAllInBatch();
+        deviceRepository.deleteAllInBatch();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 300})
+    void listingDevicesUsesOneStatementRegardlessOfFleetSize(int fleetSize) {
+        seedDevicesWithPatients(fleetSize);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        CursorPage<DeviceResponse> page = deviceService.list(new DeviceFilter(null, null), null, 500);
+
+        assertThat(page.getItems()).hasSize(fleetSize);
+        assertThat(page.getItems()).allSatisfy(device -> assertThat(device.getPatientName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 300})
+    void filteredListingUsesOneStatement(int fleetSize) {
+        seedDevicesWithPatients(fleetSize);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        CursorPage<DeviceResponse> page = deviceService.list(
+                new DeviceFilter(DeviceStatus.EM_USO, "CONCENTRADOR"), null, 500);
+
+        assertThat(page.getItems()).hasSize(fleetSize);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void seedDevicesWithPatients(int count) {
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            devices.add(Device.builder()
+                    .assetNumber(String.format("PAT-%05d", i))
+                    .type("CONCENTRADOR")
+                    .purchaseDate(LocalDate.of(2024, 1, 1))
+                    .status(DeviceStatus.EM_USO)
+                    .build());
+        }
+        devices = deviceRepository.saveAll(devices);
+
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            patients.add(Patient.builder()
+                    .name("Paciente " + i)
+                    .cpf(String.format("%011d", i))
+                    .contractType(ContractType.PREFEITURA)
+                    .status(PatientStatus.ATIVO)
+                    .registrationDate(LocalDate.now())
+                    .deviceId(devices.get(i).getId())
+                    .build());
+        }
+        patientRepository.saveAll(patients);
+        // Gravado sem passar pelos serviços: a listagem em cache seria a da execução anterior
+        EntityCaches.reset(applicationContext);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
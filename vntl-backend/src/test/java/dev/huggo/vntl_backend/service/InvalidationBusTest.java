@@ -0,0 +1,132 @@
+package dev.huggo.vntl_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.support.EmbeddedPostgresTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Ida e volta pelo {@code LISTEN/NOTIFY} do Postgres embarcado, com três instâncias do barramento no
+ * mesmo processo. O barramento do contexto fica desligado ({@link EmbeddedPostgresTest}); aqui cada
+ * instância é criada à mão e tem os próprios destinos dos avisos, para ver quem recebeu o quê.
+ */
+class InvalidationBusTest extends EmbeddedPostgresTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    private Node publisher;
+    private Node first;
+    private Node second;
+
+    @BeforeEach
+    void startNodes() throws InterruptedException {
+        publisher = start();
+        first = start();
+        second = start();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(node -> node.bus().shutdown());
+    }
+
+    @Test
+    void changeReachesEveryOtherInstance() {
+        publisher.bus().changed(ChangeEntityType.PACIENTE, 7L, false);
+
+        ChangeEvent event = new ChangeEvent(ChangeEntityType.PACIENTE, 7L, false);
+        for (Node node : List.of(first, second)) {
+            verify(node.broadcaster(), timeout(TIMEOUT_MILLIS)).deliver(event);
+            verify(node.resourceVersions(), timeout(TIMEOUT_MILLIS)).invalidate(ChangeEntityType.PACIENTE, 7L);
+        }
+        // Quem publicou já aplicou a alteração no commit local
+        verify(publisher.broadcaster(), after(200).never()).deliver(event);
+    }
+
+    @Test
+    void userChangeEvictsTheCachedPrincipalOnTheOtherInstances() {
+        publisher.bus().userChanged("tecnico");
+
+        verify(first.userDetailsService(), timeout(TIMEOUT_MILLIS)).evict("tecnico");
+        verify(second.userDetailsService(), timeout(TIMEOUT_MILLIS)).evict("tecnico");
+    }
+
+    @Test
+    void changesArePublishedOnlyAfterCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            publisher.bus().changed(ChangeEntityType.APARELHO, 1L, false);
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> publisher.bus().changed(ChangeEntityType.APARELHO, 2L, true));
+
+        verify(first.broadcaster(), timeout(TIMEOUT_MILLIS)).deliver(new ChangeEvent(ChangeEntityType.APARELHO, 2L, true));
+        verify(first.broadcaster(), never()).deliver(new ChangeEvent(ChangeEntityType.APARELHO, 1L, false));
+        verify(first.resourceVersions(), never()).invalidate(ChangeEntityType.APARELHO, 1L);
+    }
+
+    private Node start() throws InterruptedException {
+        ChangeEventBroadcaster broadcaster = mock(ChangeEventBroadcaster.class);
+        ResourceVersions resourceVersions = mock(ResourceVersions.class);
+        UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InvalidationBus bus = new InvalidationBus(dataSource, objectMapper, meterRegistry, broadcaster,
+                resourceVersions, userDetailsService);
+        ReflectionTestUtils.setField(bus, "enabled", true);
+        ReflectionTestUtils.setField(bus, "coalesceWindow", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(bus, "pollInterval", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(bus, "healthCheckInterval", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(bus, "maxBackoff", Duration.ofSeconds(1));
+        bus.init();
+        Node node = new Node(bus, broadcaster, resourceVersions, userDetailsService);
+        nodes.add(node);
+
+        // Avisos enviados antes do LISTEN se perdem; a conexão descarta tudo e só então escuta
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+        while (meterRegistry.get("cache.bus.connected").gauge().value() < 1) {
+            assertThat(System.nanoTime()).as("bus connected").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        verify(userDetailsService, timeout(TIMEOUT_MILLIS)).evictAll();
+        verify(broadcaster, timeout(TIMEOUT_MILLIS).atLeastOnce()).deliver(any());
+        return node;
+    }
+
+    private record Node(InvalidationBus bus, ChangeEventBroadcaster broadcaster, ResourceVersions resourceVersions,
+                        UserDetailsServiceImpl userDetailsService) {
+    }
+}
@@ -0,0 +1,120 @@
+package dev.huggo.vntl_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.service.dto.PatientRequest;
+import dev.huggo.vntl_backend.support.EmbeddedPostgresTest;
+
+class PatientDeviceCheckoutConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final int CONTENDERS = 20;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @BeforeEach
+    void cleanDatabase() {
+        patientRepository.deleteAllInBatch();
+        deviceRepository.deleteAllInBatch();
+    }
+
+    @RepeatedTest(3)
+    void onlyOneConcurrentCheckoutOfTheSameDeviceSucceeds() throws Exception {
+        Device device = deviceRepository.save(Device.builder()
+                .assetNumber("CHK-00001")
+                .type("CONCENTRADOR")
+                .purchaseDate(LocalDate.of(2024, 1, 1))
+                .status(DeviceStatus.ESTOQUE)
+                .build());
+        List<Patient> patients = seedPatients();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (Patient patient : patients) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        patientService.update(patient.getId(), checkoutRequest(patient, device.getId()));
+                        return true;
+                    } catch (ResponseStatusException ex) {
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int successes = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    successes++;
+                }
+            }
+            assertThat(successes).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(deviceRepository.findById(device.getId()))
+                .get()
+                .extracting(Device::getStatus)
+                .isEqualTo(DeviceStatus.EM_USO);
+        assertThat(patientRepository.findAll())
+                .filteredOn(patient -> device.getId().equals(patient.getDeviceId()))
+                .hasSize(1);
+    }
+
+    private List<Patient> seedPatients() {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            patients.add(Patient.builder()
+                    .name("Paciente " + i)
+                    .cpf(String.format("%011d", i))
+                    .contractType(ContractType.PREFEITURA)
+                    .status(PatientStatus.ATIVO)
+                    .registrationDate(LocalDate.now())
+                    .build());
+        }
+        return patientRepository.saveAll(patients);
+    }
+
+    private static PatientRequest checkoutRequest(Patient patient, Long deviceId) {
+        PatientRequest request = new PatientRequest();
+        request.setName(patient.getName());
+        request.setCpf(patient.getCpf());
+        request.setContractType(patient.getContractType().name());
+        request.setStatus(patient.getStatus().name());
+        request.setDeviceId(deviceId);
+        return request;
+    }
+}
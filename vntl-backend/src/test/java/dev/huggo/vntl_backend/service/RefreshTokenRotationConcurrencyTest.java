@@ -0,0 +1,82 @@
+package dev.huggo.vntl_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import dev.huggo.vntl_backend.domain.User;
+import dev.huggo.vntl_backend.repository.RefreshTokenRepository;
+import dev.huggo.vntl_backend.repository.UserRepository;
+import dev.huggo.vntl_backend.support.EmbeddedPostgresTest;
+
+class RefreshTokenRotationConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final int CONTENDERS = 10;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @BeforeEach
+    void cleanDatabase() {
+        refreshTokenRepository.deleteAllInBatch();
+    }
+
+    /**
+     * O mesmo refresh token apresentado em paralelo: só uma rotação vale, e as demais
+     * são tratadas como reuso e revogam a família inteira.
+     */
+    @RepeatedTest(3)
+    void onlyOneConcurrentRefreshOfTheSameTokenSucceeds() throws Exception {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        String refreshToken = authService.issueTokens(admin).getRefreshToken();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONTENDERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        authService.refresh(refreshToken);
+                        return true;
+                    } catch (BadCredentialsException ex) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int successes = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    successes++;
+                }
+            }
+            assertThat(successes).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(refreshTokenRepository.findAll())
+                .hasSize(2)
+                .allSatisfy(token -> assertThat(token.getRevokedAt()).isNotNull());
+    }
+}
@@ -0,0 +1,131 @@
+package dev.huggo.vntl_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.SyncReceiptRepository;
+import dev.huggo.vntl_backend.repository.VisitRepository;
+import dev.huggo.vntl_backend.service.dto.SyncItemResult;
+import dev.huggo.vntl_backend.service.dto.SyncOperationRequest;
+import dev.huggo.vntl_backend.service.dto.SyncRequest;
+import dev.huggo.vntl_backend.service.dto.SyncResponse;
+import dev.huggo.vntl_backend.service.dto.VisitRequest;
+import dev.huggo.vntl_backend.support.EmbeddedPostgresTest;
+
+class SyncServiceSavepointTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Autowired
+    private SyncReceiptRepository syncReceiptRepository;
+
+    private List<Patient> patients;
+
+    @BeforeEach
+    void seed() {
+        syncReceiptRepository.deleteAllInBatch();
+        visitRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+
+        patients = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            patients.add(Patient.builder()
+                    .name("Paciente " + i)
+                    .cpf(String.format("%011d", i))
+                    .contractType(ContractType.PREFEITURA)
+                    .status(PatientStatus.ATIVO)
+                    .registrationDate(LocalDate.now())
+                    .build());
+        }
+        patients = patientRepository.saveAll(patients);
+    }
+
+    @Test
+    void rejectedOperationDoesNotUndoTheOthers() {
+        SyncResponse response = syncService.sync(request(
+                createVisit("op-1", patients.get(0).getId()),
+                createVisit("op-2", Long.MAX_VALUE),
+                createVisit("op-3", patients.get(2).getId())), "admin", true);
+
+        assertThat(response.getResults())
+                .extracting(SyncItemResult::getStatus)
+                .containsExactly(SyncServiceImpl.APPLIED, SyncServiceImpl.ERROR, SyncServiceImpl.APPLIED);
+        assertThat(visitRepository.count()).isEqualTo(2);
+        assertThat(syncReceiptRepository.findAll()).hasSize(2);
+    }
+
+    /**
+     * A visita é gravada e o comprovante falha no banco (chave maior que a coluna). O erro
+     * marca a transação para rollback, e o lote é refeito sem a operação: a visita dela
+     * não fica gravada, e as demais operações seguem aplicadas.
+     */
+    @Test
+    void failureAfterWritesRollsBackOnlyThatOperation() {
+        String tooLong = "k".repeat(101);
+        SyncResponse response = syncService.sync(request(
+                createVisit("op-1", patients.get(0).getId()),
+                createVisit(tooLong, patients.get(1).getId()),
+                createVisit("op-3", patients.get(2).getId())), "admin", true);
+
+        assertThat(response.getResults())
+                .extracting(SyncItemResult::getStatus)
+                .containsExactly(SyncServiceImpl.APPLIED, SyncServiceImpl.ERROR, SyncServiceImpl.APPLIED);
+        assertThat(visitRepository.findAll())
+                .extracting(visit -> visit.getPatientId())
+                .containsExactlyInAnyOrder(patients.get(0).getId(), patients.get(2).getId());
+        assertThat(patientRepository.findById(patients.get(1).getId()))
+                .get()
+                .extracting(Patient::getLastVisitDate)
+                .isNull();
+    }
+
+    @Test
+    void idempotencyKeysAreScopedPerUser() {
+        SyncResponse first = syncService.sync(request(createVisit("op-1", patients.get(0).getId())), "admin", true);
+        SyncResponse other = syncService.sync(request(createVisit("op-1", patients.get(1).getId())), "tecnico", true);
+        SyncResponse retry = syncService.sync(request(createVisit("op-1", patients.get(0).getId())), "admin", true);
+
+        assertThat(first.getResults().get(0).getStatus()).isEqualTo(SyncServiceImpl.APPLIED);
+        assertThat(other.getResults().get(0).getStatus()).isEqualTo(SyncServiceImpl.APPLIED);
+        assertThat(retry.getResults().get(0).getStatus()).isEqualTo(SyncServiceImpl.DUPLICATE);
+        assertThat(retry.getResults().get(0).getVisitId()).isEqualTo(first.getResults().get(0).getVisitId());
+        assertThat(visitRepository.count()).isEqualTo(2);
+    }
+
+    private static SyncRequest request(SyncOperationRequest... operations) {
+        SyncRequest request = new SyncRequest();
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private static SyncOperationRequest createVisit(String key, Long patientId) {
+        VisitRequest visit = new VisitRequest();
+        visit.setPatientId(patientId);
+        visit.setVisitDate(LocalDate.now());
+        visit.setVisitType("ROTINA");
+
+        SyncOperationRequest operation = new SyncOperationRequest();
+        operation.setKey(key);
+        operation.setType("CRIAR_VISITA");
+        operation.setVisit(visit);
+        return operation;
+    }
+}
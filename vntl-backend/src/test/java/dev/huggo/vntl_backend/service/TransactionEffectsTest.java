@@ -0,0 +1,94 @@
+package dev.huggo.vntl_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.support.EmbeddedPostgresTest;
+
+/**
+ * Efeitos pós-commit registrados dentro de {@link TransactionEffects#discardOnFailure}, como numa
+ * operação de sincronização em savepoint.
+ */
+class TransactionEffectsTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void effectsOfAFailedBlockAreDiscardedAndTheOthersKept() {
+        long inStock = devices(DeviceStatus.ESTOQUE);
+        long inUse = devices(DeviceStatus.EM_USO);
+        long inMaintenance = devices(DeviceStatus.MANUTENCAO);
+        String patients = resourceVersions.collectionTag(ChangeEntityType.PACIENTE);
+        String devices = resourceVersions.collectionTag(ChangeEntityType.APARELHO);
+        String professionals = resourceVersions.collectionTag(ChangeEntityType.PROFISSIONAL);
+
+        transaction.executeWithoutResult(status -> {
+            // Antes do bloco: o acumulado da transação não pode ser afetado pelo descarte
+            resourceVersions.changed(ChangeEntityType.APARELHO, 1L);
+            dashboardCounters.deviceChanged(null, DeviceStatus.ESTOQUE);
+
+            assertThatThrownBy(() -> TransactionEffects.discardOnFailure(() -> {
+                resourceVersions.changed(ChangeEntityType.PACIENTE, 1L);
+                dashboardCounters.deviceChanged(null, DeviceStatus.MANUTENCAO);
+                throw new IllegalArgumentException("rejected");
+            })).hasMessage("rejected");
+
+            TransactionEffects.discardOnFailure(() -> {
+                resourceVersions.changed(ChangeEntityType.PROFISSIONAL, 1L);
+                dashboardCounters.deviceChanged(null, DeviceStatus.EM_USO);
+                return null;
+            });
+
+            // Nada é aplicado antes do commit
+            assertThat(devices(DeviceStatus.ESTOQUE)).isEqualTo(inStock);
+        });
+
+        assertThat(devices(DeviceStatus.ESTOQUE)).isEqualTo(inStock + 1);
+        assertThat(devices(DeviceStatus.EM_USO)).isEqualTo(inUse + 1);
+        assertThat(devices(DeviceStatus.MANUTENCAO)).isEqualTo(inMaintenance);
+        assertThat(resourceVersions.collectionTag(ChangeEntityType.APARELHO)).isNotEqualTo(devices);
+        assertThat(resourceVersions.collectionTag(ChangeEntityType.PROFISSIONAL)).isNotEqualTo(professionals);
+        assertThat(resourceVersions.collectionTag(ChangeEntityType.PACIENTE)).isEqualTo(patients);
+    }
+
+    @Test
+    void effectsOfAFailedBlockAreNotAppliedOnRollback() {
+        long inStock = devices(DeviceStatus.ESTOQUE);
+
+        transaction.executeWithoutResult(status -> {
+            TransactionEffects.discardOnFailure(() -> {
+                dashboardCounters.deviceChanged(null, DeviceStatus.ESTOQUE);
+                return null;
+            });
+            status.setRollbackOnly();
+        });
+
+        assertThat(devices(DeviceStatus.ESTOQUE)).isEqualTo(inStock);
+    }
+
+    private long devices(DeviceStatus status) {
+        return dashboardCounters.summary().getDevices().get(status.name());
+    }
+}
@@ -0,0 +1,95 @@
+package dev.huggo.vntl_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.huggo.vntl_backend.domain.User;
+import dev.huggo.vntl_backend.repository.UserRepository;
+import dev.huggo.vntl_backend.support.EmbeddedPostgresTest;
+import dev.huggo.vntl_backend.support.SqlStatementCounter;
+
+/**
+ * O principal fica no cache até o usuário mudar: uma leitura sem comandos SQL veio do cache.
+ */
+class UserCacheEvictionTest extends EmbeddedPostgresTest {
+
+    private static final String USERNAME = "tecnico.cache";
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void seed() throws Exception {
+        transaction = new TransactionTemplate(transactionManager);
+        removeUser();
+
+        User user = new User();
+        user.setUsername(USERNAME);
+        user.setPassword("x");
+        user.setName("Técnico");
+        user.setEmail("tecnico.cache@vntl.dev");
+        user.setRole("ROLE_TECHNICIAN");
+        userRepository.save(user);
+
+        userDetailsService.loadUserByUsername(USERNAME);
+        assertThat(SqlStatementCounter.count(() -> userDetailsService.loadUserByUsername(USERNAME))).isZero();
+    }
+
+    @AfterEach
+    void removeUser() {
+        userRepository.findByUsername(USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void committedUpdateEvictsThePrincipal() throws Exception {
+        transaction.executeWithoutResult(status ->
+                userRepository.findByUsername(USERNAME).orElseThrow().setRole("ROLE_MANAGER"));
+
+        int statements = SqlStatementCounter.count(() ->
+                assertThat(userDetailsService.loadUserByUsername(USERNAME).getAuthorities())
+                        .extracting(authority -> authority.getAuthority())
+                        .containsExactly("ROLE_MANAGER"));
+        assertThat(statements).isPositive();
+    }
+
+    @Test
+    void committedDeleteEvictsThePrincipal() {
+        transaction.executeWithoutResult(status ->
+                userRepository.delete(userRepository.findByUsername(USERNAME).orElseThrow()));
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername(USERNAME))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void rolledBackUpdateKeepsThePrincipal() throws Exception {
+        transaction.executeWithoutResult(status -> {
+            userRepository.findByUsername(USERNAME).orElseThrow().setRole("ROLE_MANAGER");
+            // O flush dispara o @PostUpdate antes do rollback
+            userRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        int statements = SqlStatementCounter.count(() ->
+                assertThat(userDetailsService.loadUserByUsername(USERNAME).getAuthorities())
+                        .extracting(authority -> authority.getAuthority())
+                        .containsExactly("ROLE_TECHNICIAN"));
+        assertThat(statements).isZero();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.huggo.vntl_backend.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base para testes de integração contra um PostgreSQL embarcado (binário real, sem Docker).
+ * A instância é iniciada uma vez por JVM e compartilhada entre as classes de teste.
+ * Os comandos SQL de cada teste podem ser contados ({@link SqlStatementCounter}, {@link StatementBudget}).
+ */
+@SpringBootTest
+public abstract class EmbeddedPostgresTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        // Evita a calibração do BCrypt a cada contexto
+        registry.add("security.password.strength", () -> "4");
+        // Cada contexto de teste é uma instância isolada; o barramento só traria invalidações
+        // assíncronas de outro contexto no meio das contagens
+        registry.add("cache.bus.enabled", () -> "false");
+        // Tarefa periódica com consulta ao banco; cairia nas estatísticas do Hibernate, que são globais
+        registry.add("security.jwt.revocation.refresh-interval", () -> "PT1H");
+        // A outbox do histórico de aparelhos é movida pelos próprios testes, com flush()
+        registry.add("device-history.flush-interval", () -> "PT1H");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package dev.huggo.vntl_backend.support;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import dev.huggo.vntl_backend.domain.ContractType;
+import dev.huggo.vntl_backend.domain.Device;
+import dev.huggo.vntl_backend.domain.DeviceStatus;
+import dev.huggo.vntl_backend.domain.Patient;
+import dev.huggo.vntl_backend.domain.PatientStatus;
+import dev.huggo.vntl_backend.domain.Professional;
+import dev.huggo.vntl_backend.domain.Visit;
+import dev.huggo.vntl_backend.domain.VisitType;
+import dev.huggo.vntl_backend.repository.DeviceRepository;
+import dev.huggo.vntl_backend.repository.PatientRepository;
+import dev.huggo.vntl_backend.repository.ProfessionalRepository;
+import dev.huggo.vntl_backend.repository.VisitRepository;
+
+/**
+ * Base dos testes de endpoint: MockMvc sobre o contexto completo, usuário ADMIN e tabelas de cadastro
+ * vazias a cada teste. Os cenários são gravados direto pelos repositórios, sem passar pelos serviços.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public abstract class EndpointTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected DeviceRepository deviceRepository;
+
+    @Autowired
+    protected PatientRepository patientRepository;
+
+    @Autowired
+    protected ProfessionalRepository professionalRepository;
+
+    @Autowired
+    protected VisitRepository visitRepository;
+
+    @BeforeEach
+    void cleanDatabase() {
+        // Usuários ficam: o admin da migração é usado no login
+        jdbcTemplate.execute("TRUNCATE visits, device_history, device_history_outbox, patients, devices, professionals, "
+                + "deleted_records, sync_receipts, refresh_tokens");
+    }
+
+    protected List<Device> seedDevices(int count, DeviceStatus status) {
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            devices.add(Device.builder()
+                    .assetNumber(String.format("PAT-%05d", i))
+                    .type("CONCENTRADOR")
+                    .purchaseDate(LocalDate.of(2024, 1, 1))
+                    .status(status)
+                    .build());
+        }
+        return deviceRepository.saveAll(devices);
+    }
+
+    protected List<Professional> seedProfessionals(int count) {
+        List<Professional> professionals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            professionals.add(Professional.builder()
+                    .name("Profissional " + i)
+                    .cpf(String.format("9%010d", i))
+                    .build());
+        }
+        return professionalRepository.saveAll(professionals);
+    }
+
+    /**
+     * Um paciente por aparelho, distribuídos entre os profissionais; sem aparelhos, pacientes sem aparelho.
+     */
+    protected List<Patient> seedPatients(int count, List<Device> devices, List<Professional> professionals) {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            patients.add(Patient.builder()
+                    .name(String.format("Paciente %05d", i))
+                    .cpf(String.format("%011d", i))
+                    .contractType(ContractType.PREFEITURA)
+                    .status(PatientStatus.ATIVO)
+                    .registrationDate(LocalDate.now())
+                    .addressCity("Natal")
+                    .deviceId(i < devices.size() ? devices.get(i).getId() : null)
+                    .professionalResponsibleId(professionals.isEmpty()
+                            ? null
+                            : professionals.get(i % professionals.size()).getId())
+                    .build());
+        }
+        return patientRepository.saveAll(patients);
+    }
+
+    /**
+     * Uma visita de rotina por paciente, com o profissional responsável.
+     */
+    protected List<Visit> seedVisits(List<Patient> patients, LocalDate visitDate) {
+        List<Visit> visits = new ArrayList<>();
+        for (Patient patient : patients) {
+            visits.add(Visit.builder()
+                    .patientId(patient.getId())
+                    .professionalId(patient.getProfessionalResponsibleId())
+                    .visitDate(visitDate)
+                    .visitType(VisitType.ROTINA)
+                    .build());
+        }
+        return visitRepository.saveAll(visits);
+    }
+}
@@ -0,0 +1,25 @@
+package dev.huggo.vntl_backend.support;
+
+import org.springframework.context.ApplicationContext;
+
+import dev.huggo.vntl_backend.domain.ChangeEntityType;
+import dev.huggo.vntl_backend.service.ChangeTracker;
+
+/**
+ * Esvazia os caches locais (registros, listagens e ETags) de todas as coleções.
+ * Cenários gravados direto pelos repositórios não passam pelo {@link ChangeTracker}, e sem isso
+ * um teste mediria acertos de cache deixados pelo anterior.
+ */
+public final class EntityCaches {
+
+    private EntityCaches() {
+    }
+
+    public static void reset(ApplicationContext context) {
+        ChangeTracker changeTracker = context.getBean(ChangeTracker.class);
+        for (ChangeEntityType type : ChangeEntityType.values()) {
+            // Fora de transação o aviso é entregue na hora, como uma alteração em massa da coleção
+            changeTracker.changed(type, null);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.huggo.vntl_backend.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.huggo.vntl_backend.config.StatementStats;
+
+/**
+ * Conta os comandos SQL que a thread atual envia ao banco, com um escopo de {@link StatementStats}
+ * (os mesmos contadores das métricas {@code db.*} por endpoint). Conta idas ao banco: um
+ * {@code executeBatch} vale um comando.
+ *
+ * Nos testes de endpoint o MockMvc atende a requisição na thread do teste, então o escopo inclui a
+ * requisição inteira. Threads de fundo (outbox do histórico de aparelhos, revogação de tokens) ficam de fora,
+ * assim como o trabalho que o endpoint entrega a outra thread: esse é medido chamando o serviço
+ * diretamente.
+ *
+ * Para orçar um método de teste inteiro há {@link StatementBudget}.
+ */
+public final class SqlStatementCounter {
+
+    private SqlStatementCounter() {
+    }
+
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * @return comandos executados pela thread atual durante a ação
+     */
+    public static int count(SqlAction action) throws Exception {
+        StatementStats stats = StatementStats.start();
+        try {
+            action.run();
+        } finally {
+            StatementStats.stop();
+        }
+        return stats.statements();
+    }
+
+    /**
+     * Executa a ação e falha se a thread atual enviar mais de {@code max} comandos ao banco.
+     *
+     * @return comandos executados
+     */
+    public static int assertAtMost(int max, SqlAction action) throws Exception {
+        int executed = count(action);
+        assertThat(executed).as("SQL statements executed").isLessThanOrEqualTo(max);
+        return executed;
+    }
+}
@@ -0,0 +1,29 @@
+package dev.huggo.vntl_backend.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Limite de comandos SQL de um método de teste: o teste falha se o corpo do método enviar mais de
+ * {@link #value()} comandos ao banco ({@link SqlStatementCounter}).
+ *
+ * Os {@code @BeforeEach} ficam fora da conta, então é neles que o cenário é montado. Logo antes do corpo
+ * os caches locais são esvaziados ({@link EntityCaches#reset}): o limite vale para a primeira leitura,
+ * não para um acerto de cache.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(StatementBudgetExtension.class)
+public @interface StatementBudget {
+
+    /**
+     * Máximo de comandos.
+     */
+    int value();
+}
@@ -0,0 +1,43 @@
+package dev.huggo.vntl_backend.support;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import dev.huggo.vntl_backend.config.StatementStats;
+
+/**
+ * Aplica o {@link StatementBudget} do método de teste.
+ */
+public class StatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(StatementBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        EntityCaches.reset(SpringExtension.getApplicationContext(context));
+        context.getStore(NAMESPACE).put(StatementStats.class, StatementStats.start());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        int executed = context.getStore(NAMESPACE).remove(StatementStats.class, StatementStats.class).statements();
+        StatementStats.stop();
+        // Uma falha do próprio teste é mais informativa que o estouro do orçamento
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        StatementBudget budget = budget(context);
+        if (executed > budget.value()) {
+            throw new AssertionError(String.format("%s executed %d SQL statements; budget is %d",
+                    context.getRequiredTestMethod().getName(), executed, budget.value()));
+        }
+    }
+
+    private static StatementBudget budget(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), StatementBudget.class)
+                .orElseThrow(() -> new IllegalStateException("Missing @StatementBudget on " + context.getDisplayName()));
+    }
+}
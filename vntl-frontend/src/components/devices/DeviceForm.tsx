@@ -3,8 +3,6 @@ import { useMutation, useQueryClient } from '@tanstack/react-query';
 import { deviceService } from '../../services/device.service';
 import type { Aparelho, AparelhoRequest } from '../../types/devices.types';
 import { StatusAparelho as StatusAparelhoEnum } from '../../types/devices.types';
-import { useQuery } from '@tanstack/react-query';
-import { pacientService } from '../../services/pacient.service';
 import { formatDateToBR, formatDateToISO, applyDateMask } from '../../utils/formatters';
 
 interface DeviceFormProps {
@@ -29,11 +27,6 @@ const DeviceForm = ({ device, onClose, onSuccess }: DeviceFormProps) => {
     observacoes: ''
   });
 
-  const { data: patients = [] } = useQuery({
-    queryKey: ['patients'],
-    queryFn: pacientService.getAll
-  });
-
   const queryClient = useQueryClient();
 
   useEffect(() => {
@@ -16,7 +16,7 @@ const DeviceList = () => {
     queryKey: ['devices', statusFilter],
     queryFn: () => statusFilter === 'all' 
       ? deviceService.getAll() 
-      : deviceService.getByStatus(statusFilter)
+      : deviceService.getByStatus(statusFilter as StatusAparelho)
   });
 
   const deleteMutation = useMutation({
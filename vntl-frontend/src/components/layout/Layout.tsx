@@ -1,12 +1,15 @@
 import type { ReactNode } from 'react';
 import Sidebar from './Sidebar';
 import Header from './Header';
+import { useChangeEvents } from '../../hooks/useChangeEvents';
 
 interface LayoutProps {
   children: ReactNode;
 }
 
 const Layout = ({ children }: LayoutProps) => {
+  useChangeEvents();
+
   return (
     <div className="layout">
       <Sidebar />
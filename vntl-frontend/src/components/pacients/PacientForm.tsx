@@ -39,14 +39,15 @@ const PacientForm = ({ pacient, onClose, onSuccess }: PacientFormProps) => {
   const [telefoneError, setTelefoneError] = useState<string>('');
   const [telefoneSecundarioError, setTelefoneSecundarioError] = useState<string>('');
 
-  const { data: devices = [] } = useQuery({
-    queryKey: ['devices'],
-    queryFn: deviceService.getAll
+  // Só id e rótulo: aparelhos em estoque (mais o já vinculado) e profissionais ativos
+  const { data: availableDevices = [] } = useQuery({
+    queryKey: ['devices', 'lookup', pacient?.aparelhoId],
+    queryFn: () => deviceService.lookup({ include: pacient?.aparelhoId, limit: 500 })
   });
 
   const { data: professionals = [] } = useQuery({
-    queryKey: ['professionals'],
-    queryFn: professionalService.getAll
+    queryKey: ['professionals', 'lookup'],
+    queryFn: () => professionalService.lookup()
   });
 
   const queryClient = useQueryClient();
@@ -201,10 +202,6 @@ const PacientForm = ({ pacient, onClose, onSuccess }: PacientFormProps) => {
   };
 
 
-  const availableDevices = devices.filter(d => 
-    d.status === 'ESTOQUE' || d.id === formData.aparelhoId
-  );
-
   return (
     <div className="modal-overlay">
       <div className="modal modal-large">
@@ -519,7 +516,7 @@ const PacientForm = ({ pacient, onClose, onSuccess }: PacientFormProps) => {
                   <option value="">Nenhum</option>
                   {availableDevices.map(device => (
                     <option key={device.id} value={device.id}>
-                      {device.numeroPatrimonio} - {device.tipo}
+                      {device.rotulo}
                     </option>
                   ))}
                 </select>
@@ -533,9 +530,9 @@ const PacientForm = ({ pacient, onClose, onSuccess }: PacientFormProps) => {
                   onChange={handleChange}
                 >
                   <option value="">Nenhum</option>
-                  {professionals.filter(p => p.ativo).map(professional => (
+                  {professionals.map(professional => (
                     <option key={professional.id} value={professional.id}>
-                      {professional.nome}
+                      {professional.rotulo}
                     </option>
                   ))}
                 </select>
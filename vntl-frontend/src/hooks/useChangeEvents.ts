@@ -0,0 +1,69 @@
+import { useEffect } from 'react';
+import { useQueryClient } from '@tanstack/react-query';
+import { eventsService } from '../services/events.service';
+import type { TipoEntidade } from '../types/events.types';
+
+const QUERY_KEYS: Record<TipoEntidade, string> = {
+  PACIENTE: 'patients',
+  APARELHO: 'devices',
+  PROFISSIONAL: 'professionals'
+};
+
+// Agrupa rajadas de avisos numa única atualização das consultas
+const DEBOUNCE_MS = 500;
+const MAX_RETRY_MS = 60_000;
+
+// Mantém as listas e o dashboard atualizados pelos avisos do servidor, em vez de polling
+export const useChangeEvents = () => {
+  const queryClient = useQueryClient();
+
+  useEffect(() => {
+    const controller = new AbortController();
+    const pending = new Set<string>();
+    let timer: ReturnType<typeof setTimeout> | undefined;
+    let retryMs = 1_000;
+
+    const flush = () => {
+      timer = undefined;
+      pending.forEach((key) => queryClient.invalidateQueries({ queryKey: [key] }));
+      queryClient.invalidateQueries({ queryKey: ['dashboard-summary'] });
+      pending.clear();
+    };
+
+    const schedule = (keys: string[]) => {
+      keys.forEach((key) => pending.add(key));
+      timer ??= setTimeout(flush, DEBOUNCE_MS);
+    };
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          await eventsService.stream({
+            onChange: (event) => {
+              retryMs = 1_000;
+              schedule([QUERY_KEYS[event.tipo]]);
+            },
+            onReload: () => schedule(Object.values(QUERY_KEYS))
+          }, controller.signal);
+        } catch {
+          // reconecta abaixo
+        }
+        if (controller.signal.aborted) {
+          return;
+        }
+        // Pode ter perdido avisos enquanto esteve desconectado
+        schedule(Object.values(QUERY_KEYS));
+        await new Promise((resolve) => setTimeout(resolve, retryMs));
+        retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+      }
+    };
+    connect();
+
+    return () => {
+      controller.abort();
+      if (timer) {
+        clearTimeout(timer);
+      }
+    };
+  }, [queryClient]);
+};
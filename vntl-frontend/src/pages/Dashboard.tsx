@@ -1,43 +1,46 @@
 import { useQuery } from '@tanstack/react-query';
 import { deviceService } from '../services/device.service';
 import { pacientService } from '../services/pacient.service';
-import { professionalService } from '../services/professional.service';
+import { dashboardService } from '../services/dashboard.service';
 import { StatusAparelho } from '../types/devices.types';
 import { PacientStatus } from '../types/pacient.types';
 
+const sum = (counts: Record<string, number> = {}) =>
+  Object.values(counts).reduce((total, count) => total + count, 0);
+
 const Dashboard = () => {
-  const { data: devices = [] } = useQuery({
-    queryKey: ['devices'],
-    queryFn: deviceService.getAll
+  const { data: summary } = useQuery({
+    queryKey: ['dashboard-summary'],
+    queryFn: dashboardService.getSummary
   });
 
-  const { data: patients = [] } = useQuery({
-    queryKey: ['patients'],
-    queryFn: pacientService.getAll
+  // Apenas as 5 primeiras visitas vencidas, já filtradas no servidor
+  const today = new Date().toISOString().slice(0, 10);
+  const { data: pendingVisitsPage } = useQuery({
+    queryKey: ['patients', 'pending-visits', today],
+    queryFn: () => pacientService.getPage({ nextVisitTo: today }, undefined, 5)
   });
 
-  const { data: professionals = [] } = useQuery({
-    queryKey: ['professionals'],
-    queryFn: professionalService.getAll
+  // Só os 5 primeiros, com os campos exibidos
+  const { data: devicesInMaintenancePage } = useQuery({
+    queryKey: ['devices', StatusAparelho.MANUTENCAO],
+    queryFn: () => deviceService.getPageFields(['numeroPatrimonio', 'tipo'], { status: StatusAparelho.MANUTENCAO }, undefined, 5)
   });
+  const devicesInMaintenanceList = devicesInMaintenancePage?.itens ?? [];
 
-  const devicesInStock = devices.filter(d => d.status === StatusAparelho.ESTOQUE).length;
-  const devicesInUse = devices.filter(d => d.status === StatusAparelho.EM_USO).length;
-  const devicesInMaintenance = devices.filter(d => d.status === StatusAparelho.MANUTENCAO).length;
+  const devicesByStatus = summary?.aparelhosPorStatus ?? {};
+  const patientsByStatus = summary?.pacientesPorStatus ?? {};
 
-  const activePatients = patients.filter(p => p.status === PacientStatus.ATIVO).length;
-  const waitingPatients = patients.filter(p => p.status === PacientStatus.AGUARDANDO).length;
+  const devicesInStock = devicesByStatus[StatusAparelho.ESTOQUE] ?? 0;
+  const devicesInUse = devicesByStatus[StatusAparelho.EM_USO] ?? 0;
+  const devicesInMaintenance = devicesByStatus[StatusAparelho.MANUTENCAO] ?? 0;
 
-  const activeProfessionals = professionals.filter(p => p.ativo).length;
+  const activePatients = patientsByStatus[PacientStatus.ATIVO] ?? 0;
+  const waitingPatients = patientsByStatus[PacientStatus.AGUARDANDO] ?? 0;
 
-  const upcomingVisits = patients.filter(p => {
-    if (!p.dataProximaVisita) return false;
-    const visitDate = new Date(p.dataProximaVisita);
-    const today = new Date();
-    const nextWeek = new Date();
-    nextWeek.setDate(today.getDate() + 7);
-    return visitDate >= today && visitDate <= nextWeek;
-  }).length;
+  const activeProfessionals = summary?.profissionaisAtivos ?? 0;
+  const upcomingVisits = summary?.proximasVisitas ?? 0;
+  const pendingVisits = pendingVisitsPage?.itens ?? [];
 
   return (
     <div className="dashboard">
@@ -48,7 +51,7 @@ const Dashboard = () => {
           <div className="stat-icon">🏥</div>
           <div className="stat-content">
             <h3>Aparelhos</h3>
-            <p className="stat-number">{devices.length}</p>
+            <p className="stat-number">{sum(devicesByStatus)}</p>
             <div className="stat-details">
               <span>Estoque: {devicesInStock}</span>
               <span>Em Uso: {devicesInUse}</span>
@@ -61,7 +64,7 @@ const Dashboard = () => {
           <div className="stat-icon">👥</div>
           <div className="stat-content">
             <h3>Pacientes</h3>
-            <p className="stat-number">{patients.length}</p>
+            <p className="stat-number">{sum(patientsByStatus)}</p>
             <div className="stat-details">
               <span>Ativos: {activePatients}</span>
               <span>Aguardando: {waitingPatients}</span>
@@ -73,7 +76,7 @@ const Dashboard = () => {
           <div className="stat-icon">👨‍⚕️</div>
           <div className="stat-content">
             <h3>Profissionais</h3>
-            <p className="stat-number">{professionals.length}</p>
+            <p className="stat-number">{summary?.profissionaisTotal ?? 0}</p>
             <div className="stat-details">
               <span>Ativos: {activeProfessionals}</span>
             </div>
@@ -86,7 +89,7 @@ const Dashboard = () => {
             <h3>Próximas Visitas</h3>
             <p className="stat-number">{upcomingVisits}</p>
             <div className="stat-details">
-              <span>Próximos 7 dias</span>
+              <span>Próximos {summary?.proximasVisitasDias ?? 7} dias</span>
             </div>
           </div>
         </div>
@@ -96,10 +99,7 @@ const Dashboard = () => {
         <div className="dashboard-section">
           <h3>Visitas Pendentes</h3>
           <div className="visit-list">
-            {patients
-              .filter(p => p.dataProximaVisita && new Date(p.dataProximaVisita) <= new Date())
-              .slice(0, 5)
-              .map(patient => (
+            {pendingVisits.map(patient => (
                 <div key={patient.id} className="visit-item">
                   <div>
                     <strong>{patient.nome}</strong>
@@ -115,7 +115,7 @@ const Dashboard = () => {
                   </span>
                 </div>
               ))}
-            {patients.filter(p => p.dataProximaVisita && new Date(p.dataProximaVisita) <= new Date()).length === 0 && (
+            {pendingVisits.length === 0 && (
               <p className="empty-message">Nenhuma visita pendente</p>
             )}
           </div>
@@ -124,8 +124,7 @@ const Dashboard = () => {
         <div className="dashboard-section">
           <h3>Aparelhos em Manutenção</h3>
           <div className="maintenance-list">
-            {devices
-              .filter(d => d.status === StatusAparelho.MANUTENCAO)
+            {devicesInMaintenanceList
               .slice(0, 5)
               .map(device => (
                 <div key={device.id} className="maintenance-item">
@@ -135,7 +134,7 @@ const Dashboard = () => {
                   </div>
                 </div>
               ))}
-            {devices.filter(d => d.status === StatusAparelho.MANUTENCAO).length === 0 && (
+            {devicesInMaintenanceList.length === 0 && (
               <p className="empty-message">Nenhum aparelho em manutenção</p>
             )}
           </div>
@@ -19,14 +19,48 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
+// Renovação do access token compartilhada entre requisições concorrentes
+let refreshPromise: Promise<string> | null = null;
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshPromise = (refreshToken
+      ? axios.post(`${api.defaults.baseURL}/auth/refresh`, { refreshToken }).then((response) => {
+          localStorage.setItem('token', response.data.token);
+          localStorage.setItem('refreshToken', response.data.refreshToken);
+          return response.data.token as string;
+        })
+      : Promise.reject(new Error('No refresh token'))
+    ).finally(() => {
+      refreshPromise = null;
+    });
+  }
+  return refreshPromise;
+};
+
 // Interceptor para tratar erros de autenticação
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const original = error.config;
+    const isAuthCall = original?.url?.startsWith('/auth/');
+    if ((error.response?.status === 401 || error.response?.status === 403)
+        && original && !original._retry && !isAuthCall && localStorage.getItem('refreshToken')) {
+      original._retry = true;
+      try {
+        const token = await refreshAccessToken();
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch {
+        // segue para o tratamento padrão abaixo
+      }
+    }
     if (error.response?.status === 401) {
       // Só redireciona se não estiver já na página de login
       if (!window.location.pathname.includes('/login')) {
         localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
         localStorage.removeItem('user');
         window.location.href = '/login';
       }
@@ -4,16 +4,22 @@ import type { LoginRequest, LoginResponse, User } from '../types/auth.types';
 export const authService = {
   async login(credentials: LoginRequest): Promise<LoginResponse> {
     const response = await api.post('/auth/login', credentials);
-    const { token, username, nome, role } = response.data;
+    const { token, refreshToken, username, nome, role } = response.data;
     
     localStorage.setItem('token', token);
+    localStorage.setItem('refreshToken', refreshToken);
     localStorage.setItem('user', JSON.stringify({ username, nome, role }));
     
     return response.data;
   },
 
   logout(): void {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshToken) {
+      api.post('/auth/logout', { refreshToken }).catch(() => undefined);
+    }
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
   },
 
@@ -0,0 +1,9 @@
+import api from './api';
+import type { DashboardSummary } from '../types/dashboard.types';
+
+export const dashboardService = {
+  async getSummary(): Promise<DashboardSummary> {
+    const response = await api.get('/dashboard/summary');
+    return response.data;
+  }
+};
@@ -1,9 +1,49 @@
 import api from './api';
-import type { Aparelho, AparelhoRequest } from '../types/devices.types';
+import type { Aparelho, AparelhoFilter, AparelhoRequest, MovimentacaoAparelho, StatusAparelho } from '../types/devices.types';
+import type { ChangeFeed, CursorPage } from '../types/pagination.types';
+import type { ImportResponse } from '../types/import.types';
+import type { DeviceLookupParams, LookupItem } from '../types/lookup.types';
+
+const PAGE_SIZE = 500;
 
 export const deviceService = {
-  async getAll(): Promise<Aparelho[]> {
-    const response = await api.get('/devices');
+  async getPage(filter: AparelhoFilter = {}, cursor?: string, limit = 50): Promise<CursorPage<Aparelho>> {
+    const response = await api.get('/devices', { params: { ...filter, cursor, limit } });
+    return response.data;
+  },
+
+  // Só o id e os campos pedidos; o backend lê apenas essas colunas
+  async getPageFields<K extends keyof Aparelho>(
+    fields: K[],
+    filter: AparelhoFilter = {},
+    cursor?: string,
+    limit = 50
+  ): Promise<CursorPage<Pick<Aparelho, K | 'id'>>> {
+    const response = await api.get('/devices', { params: { ...filter, fields: fields.join(','), cursor, limit } });
+    return response.data;
+  },
+
+  // Opções do campo de aparelho (por padrão, só em estoque); include mantém o aparelho já selecionado
+  async lookup(params: DeviceLookupParams = {}): Promise<LookupItem[]> {
+    const response = await api.get('/devices/lookup', { params });
+    return response.data;
+  },
+
+  // Percorre todas as páginas; prefira getPage em listagens grandes
+  async getAll(filter: AparelhoFilter = {}): Promise<Aparelho[]> {
+    const devices: Aparelho[] = [];
+    let cursor: string | undefined;
+    do {
+      const page = await deviceService.getPage(filter, cursor, PAGE_SIZE);
+      devices.push(...page.itens);
+      cursor = page.proximoCursor ?? undefined;
+    } while (cursor);
+    return devices;
+  },
+
+  // Alterações desde a marca de uma resposta anterior; sem marca, só devolve a marca inicial
+  async getChanges(since?: string): Promise<ChangeFeed<Aparelho>> {
+    const response = await api.get('/devices/changes', { params: { since } });
     return response.data;
   },
 
@@ -17,17 +57,28 @@ export const deviceService = {
     return response.data;
   },
 
+  // Envia o arquivo como corpo bruto; o backend lê linha a linha
+  async importFile(file: File): Promise<ImportResponse> {
+    const contentType = file.name.toLowerCase().endsWith('.csv') ? 'text/csv' : 'application/json';
+    const response = await api.post('/devices/import', file, { headers: { 'Content-Type': contentType } });
+    return response.data;
+  },
+
   async update(id: number, data: Partial<AparelhoRequest>): Promise<Aparelho> {
     const response = await api.put(`/devices/${id}`, data);
     return response.data;
   },
 
+  async getHistory(id: number, cursor?: string, limit = 50): Promise<CursorPage<MovimentacaoAparelho>> {
+    const response = await api.get(`/devices/${id}/history`, { params: { cursor, limit } });
+    return response.data;
+  },
+
   async delete(id: number): Promise<void> {
     await api.delete(`/devices/${id}`);
   },
 
-  async getByStatus(status: string): Promise<Aparelho[]> {
-    const response = await api.get(`/devices?status=${status}`);
-    return response.data;
+  async getByStatus(status: StatusAparelho): Promise<Aparelho[]> {
+    return deviceService.getAll({ status });
   }
 };
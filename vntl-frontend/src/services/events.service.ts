@@ -0,0 +1,56 @@
+import api from './api';
+import type { EventoAlteracao } from '../types/events.types';
+
+export interface ChangeEventHandlers {
+  onChange: (event: EventoAlteracao) => void;
+  // Avisos foram perdidos (conexão lenta); atualizar tudo
+  onReload: () => void;
+}
+
+// EventSource não permite o header Authorization, por isso o stream é lido com fetch
+export const eventsService = {
+  async stream(handlers: ChangeEventHandlers, signal: AbortSignal): Promise<void> {
+    const response = await fetch(`${api.defaults.baseURL}/events`, {
+      headers: {
+        Accept: 'text/event-stream',
+        Authorization: `Bearer ${localStorage.getItem('token') ?? ''}`
+      },
+      signal
+    });
+    if (!response.ok || !response.body) {
+      throw new Error(`Event stream failed with status ${response.status}`);
+    }
+
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) {
+        return;
+      }
+      buffer += value;
+      let end;
+      while ((end = buffer.indexOf('\n\n')) >= 0) {
+        dispatch(buffer.slice(0, end), handlers);
+        buffer = buffer.slice(end + 2);
+      }
+    }
+  }
+};
+
+const dispatch = (block: string, handlers: ChangeEventHandlers) => {
+  let name = 'message';
+  let data = '';
+  for (const line of block.split('\n')) {
+    if (line.startsWith('event:')) {
+      name = line.slice(6).trim();
+    } else if (line.startsWith('data:')) {
+      data += line.slice(5).trim();
+    }
+  }
+  if (name === 'alteracao' && data) {
+    handlers.onChange(JSON.parse(data));
+  } else if (name === 'recarregar') {
+    handlers.onReload();
+  }
+};
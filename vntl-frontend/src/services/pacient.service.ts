@@ -1,9 +1,31 @@
 import api from './api';
-import type { Pacient, PacientRequest } from '../types/pacient.types';
+import type { Pacient, PacientFilter, PacientRequest, PacientStatus } from '../types/pacient.types';
+import type { ChangeFeed, CursorPage } from '../types/pagination.types';
+import type { ImportJob } from '../types/import.types';
+
+const PAGE_SIZE = 500;
 
 export const pacientService = {
-  async getAll(): Promise<Pacient[]> {
-    const response = await api.get('/patients');
+  async getPage(filter: PacientFilter = {}, cursor?: string, limit = 50): Promise<CursorPage<Pacient>> {
+    const response = await api.get('/patients', { params: { ...filter, cursor, limit } });
+    return response.data;
+  },
+
+  // Percorre todas as páginas; prefira getPage em listagens grandes
+  async getAll(filter: PacientFilter = {}): Promise<Pacient[]> {
+    const pacients: Pacient[] = [];
+    let cursor: string | undefined;
+    do {
+      const page = await pacientService.getPage(filter, cursor, PAGE_SIZE);
+      pacients.push(...page.itens);
+      cursor = page.proximoCursor ?? undefined;
+    } while (cursor);
+    return pacients;
+  },
+
+  // Alterações desde a marca de uma resposta anterior; sem marca, só devolve a marca inicial
+  async getChanges(since?: string): Promise<ChangeFeed<Pacient>> {
+    const response = await api.get('/patients/changes', { params: { since } });
     return response.data;
   },
 
@@ -12,6 +34,22 @@ export const pacientService = {
     return response.data;
   },
 
+  // A importação roda em segundo plano; acompanhe com getImportStatus
+  async startImport(file: File): Promise<ImportJob> {
+    const response = await api.post('/patients/import', file, { headers: { 'Content-Type': 'text/csv' } });
+    return response.data;
+  },
+
+  async getImportStatus(jobId: string): Promise<ImportJob> {
+    const response = await api.get(`/patients/imports/${jobId}`);
+    return response.data;
+  },
+
+  async downloadImportErrors(jobId: string): Promise<Blob> {
+    const response = await api.get(`/patients/imports/${jobId}/errors`, { responseType: 'blob' });
+    return response.data;
+  },
+
   async create(data: PacientRequest): Promise<Pacient> {
     const response = await api.post('/patients', data);
     return response.data;
@@ -26,9 +64,8 @@ export const pacientService = {
     await api.delete(`/patients/${id}`);
   },
 
-  async getByStatus(status: string): Promise<Pacient[]> {
-    const response = await api.get(`/patients?status=${status}`);
-    return response.data;
+  async getByStatus(status: PacientStatus): Promise<Pacient[]> {
+    return pacientService.getAll({ status });
   },
 
   async updateLastVisit(id: number, dataVisita: string): Promise<Pacient> {
@@ -1,9 +1,29 @@
 import api from './api';
-import type { Professional, ProfessionalRequest } from '../types/professional.types';
+import type {
+  Professional,
+  ProfessionalRequest,
+  ReassignPatientsRequest,
+  ReassignPatientsResponse
+} from '../types/professional.types';
+import type { ChangeFeed } from '../types/pagination.types';
+import type { LookupItem } from '../types/lookup.types';
 
 export const professionalService = {
+  // A listagem só usa a contagem; os ids ficam de fora para reduzir o payload
   async getAll(): Promise<Professional[]> {
-    const response = await api.get('/professionals');
+    const response = await api.get('/professionals', { params: { includePatientIds: false } });
+    return response.data;
+  },
+
+  // Opções do campo de profissional: só os ativos, filtrados pelo início do nome
+  async lookup(q?: string, limit = 500): Promise<LookupItem[]> {
+    const response = await api.get('/professionals/lookup', { params: { q, limit } });
+    return response.data;
+  },
+
+  // Alterações desde a marca de uma resposta anterior; sem marca, só devolve a marca inicial
+  async getChanges(since?: string): Promise<ChangeFeed<Professional>> {
+    const response = await api.get('/professionals/changes', { params: { since } });
     return response.data;
   },
 
@@ -37,5 +57,10 @@ export const professionalService = {
 
   async unassignPatient(professionalId: number, patientId: number): Promise<void> {
     await api.delete(`/professionals/${professionalId}/patients/${patientId}`);
+  },
+
+  async reassignPatients(professionalId: number, data: ReassignPatientsRequest): Promise<ReassignPatientsResponse> {
+    const response = await api.post(`/professionals/${professionalId}/patients/reassign`, data);
+    return response.data;
   }
 };
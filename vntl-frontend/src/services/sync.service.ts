@@ -0,0 +1,9 @@
+import api from './api';
+import type { SyncRequest, SyncResponse } from '../types/sync.types';
+
+export const syncService = {
+  async sync(data: SyncRequest): Promise<SyncResponse> {
+    const response = await api.post('/sync', data);
+    return response.data;
+  }
+};
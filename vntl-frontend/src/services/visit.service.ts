@@ -0,0 +1,29 @@
+import api from './api';
+import type { Visita, VisitaFilter, VisitaRequest } from '../types/visit.types';
+import type { CursorPage } from '../types/pagination.types';
+
+export const visitService = {
+  async getPage(filter: VisitaFilter = {}, cursor?: string, limit = 50): Promise<CursorPage<Visita>> {
+    const response = await api.get('/visits', { params: { ...filter, cursor, limit } });
+    return response.data;
+  },
+
+  async getById(id: number): Promise<Visita> {
+    const response = await api.get(`/visits/${id}`);
+    return response.data;
+  },
+
+  async create(data: VisitaRequest): Promise<Visita> {
+    const response = await api.post('/visits', data);
+    return response.data;
+  },
+
+  async update(id: number, data: VisitaRequest): Promise<Visita> {
+    const response = await api.put(`/visits/${id}`, data);
+    return response.data;
+  },
+
+  async delete(id: number): Promise<void> {
+    await api.delete(`/visits/${id}`);
+  }
+};
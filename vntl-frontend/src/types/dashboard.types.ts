@@ -0,0 +1,8 @@
+export interface DashboardSummary {
+  aparelhosPorStatus: Record<string, number>;
+  pacientesPorStatus: Record<string, number>;
+  profissionaisTotal: number;
+  profissionaisAtivos: number;
+  proximasVisitas: number;
+  proximasVisitasDias: number;
+}
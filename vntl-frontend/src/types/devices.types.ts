@@ -31,4 +31,19 @@ export interface AparelhoRequest {
   status: StatusAparelho;
   pacienteId?: number;
   observacoes?: string;
-}
\ No newline at end of file
+}
+export interface AparelhoFilter {
+  status?: StatusAparelho;
+  type?: string;
+}
+
+export interface MovimentacaoAparelho {
+  id: number;
+  aparelhoId: number;
+  pacienteId?: number;
+  statusAnterior?: StatusAparelho;
+  statusNovo: StatusAparelho;
+  dataMovimentacao: string;
+  observacoes?: string;
+  usuarioId?: number;
+}
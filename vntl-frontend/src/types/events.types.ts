@@ -0,0 +1,8 @@
+export type TipoEntidade = 'PACIENTE' | 'APARELHO' | 'PROFISSIONAL';
+
+// Aviso de alteração; id ausente quando várias linhas mudaram de uma vez
+export interface EventoAlteracao {
+  tipo: TipoEntidade;
+  id?: number | null;
+  removido: boolean;
+}
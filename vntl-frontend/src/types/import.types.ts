@@ -0,0 +1,25 @@
+export interface ImportRowError {
+  linha: number;
+  identificador?: string;
+  mensagem: string;
+}
+
+export interface ImportResponse {
+  total: number;
+  importados: number;
+  erros: ImportRowError[];
+}
+
+export type ImportJobStatus = 'PENDENTE' | 'PROCESSANDO' | 'CONCLUIDO' | 'FALHOU';
+
+export interface ImportJob {
+  id: string;
+  status: ImportJobStatus;
+  progresso: number;
+  processados: number;
+  importados: number;
+  erros: number;
+  mensagem?: string;
+  iniciadoEm: string;
+  concluidoEm?: string;
+}
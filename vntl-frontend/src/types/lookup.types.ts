@@ -0,0 +1,13 @@
+// Opção de campo de seleção devolvida pelos endpoints /lookup
+export interface LookupItem {
+  id: number;
+  rotulo: string;
+}
+
+export interface DeviceLookupParams {
+  status?: string;
+  type?: string;
+  q?: string;
+  include?: number;
+  limit?: number;
+}
@@ -37,6 +37,7 @@ export interface Pacient {
   dataProximaVisita?: string;
   aparelhoId?: number;
   aparelhoTipo?: string;
+  aparelhoNumeroPatrimonio?: string;
   profissionalResponsavelId?: number;
   profissionalResponsavelNome?: string;
   observacoes?: string;
@@ -62,4 +63,12 @@ export interface PacientRequest {
   aparelhoId?: number;
   profissionalResponsavelId?: number;
   observacoes?: string;
-}
\ No newline at end of file
+}
+export interface PacientFilter {
+  status?: PacientStatus;
+  contractType?: ContractType;
+  professionalId?: number;
+  city?: string;
+  nextVisitFrom?: string;
+  nextVisitTo?: string;
+}
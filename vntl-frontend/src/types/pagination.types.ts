@@ -0,0 +1,14 @@
+export interface CursorPage<T> {
+  itens: T[];
+  proximoCursor?: string | null;
+}
+
+// Resposta de GET .../changes; "marca" vai como "since" na consulta seguinte.
+// Com "recarregar", busque a lista inteira (depois de guardar a marca) e continue a partir dela.
+export interface ChangeFeed<T> {
+  alterados: T[];
+  removidos: number[];
+  marca: string;
+  incompleto: boolean;
+  recarregar: boolean;
+}
@@ -21,3 +21,19 @@ export interface ProfessionalRequest {
   ativo: boolean;
   observacoes?: string;
 }
+
+export interface ReassignPatientsRequest {
+  profissionalDestinoId: number | null;
+  pacientesIds?: number[];
+  status?: string;
+  tipoContrato?: string;
+  cidade?: string;
+}
+
+export interface ReassignPatientsResponse {
+  profissionalOrigemId: number;
+  profissionalDestinoId: number | null;
+  solicitados?: number | null;
+  transferidos: number;
+  ignorados?: number | null;
+}
@@ -0,0 +1,43 @@
+import type { Visita, VisitaRequest } from './visit.types';
+
+export type TipoOperacaoSync = 'CRIAR_VISITA' | 'ATUALIZAR_VISITA' | 'EXCLUIR_VISITA' | 'ULTIMA_VISITA';
+
+export type StatusOperacaoSync = 'APLICADO' | 'DUPLICADO' | 'CONFLITO' | 'ERRO';
+
+export interface OperacaoSync {
+  chave: string;
+  tipo: TipoOperacaoSync;
+  registradoEm?: string;
+  visitaId?: number;
+  visita?: VisitaRequest;
+  pacienteId?: number;
+  dataVisita?: string;
+}
+
+export interface SyncRequest {
+  desde?: string;
+  profissionalId?: number;
+  operacoes: OperacaoSync[];
+}
+
+export interface ResultadoOperacaoSync {
+  chave: string;
+  status: StatusOperacaoSync;
+  visitaId?: number;
+  mensagem?: string;
+  visita?: Visita;
+}
+
+export interface DatasPacienteSync {
+  id: number;
+  dataUltimaVisita?: string;
+  dataProximaVisita?: string;
+}
+
+export interface SyncResponse {
+  resultados: ResultadoOperacaoSync[];
+  visitas: Visita[];
+  pacientes: DatasPacienteSync[];
+  sincronizadoEm: string;
+  incompleto: boolean;
+}
@@ -0,0 +1,31 @@
+export type TipoVisita = 'INSTALACAO' | 'MANUTENCAO' | 'RETIRADA' | 'ROTINA';
+
+export interface Visita {
+  id: number;
+  pacienteId: number;
+  pacienteNome: string;
+  profissionalId?: number;
+  profissionalNome?: string;
+  dataVisita: string;
+  horaInicio?: string;
+  horaFim?: string;
+  tipo: TipoVisita;
+  observacoes?: string;
+}
+
+export interface VisitaRequest {
+  pacienteId: number;
+  profissionalId?: number;
+  dataVisita: string;
+  horaInicio?: string;
+  horaFim?: string;
+  tipo?: TipoVisita;
+  observacoes?: string;
+}
+
+export interface VisitaFilter {
+  patientId?: number;
+  professionalId?: number;
+  from?: string;
+  to?: string;
+}